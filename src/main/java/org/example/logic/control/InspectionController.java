@@ -1,9 +1,11 @@
 package org.example.logic.control;
 
+import org.example.logic.model.handlers.JiraClient;
 import org.example.logic.model.keyabstractions.*;
 import org.example.logic.model.keyabstractions.Record;
 import org.example.logic.model.utils.ARFFWriter;
 import org.example.logic.model.utils.CSVWriter;
+import org.example.logic.model.utils.JiraResponseCache;
 import org.example.logic.model.utils.ProjectInspector;
 
 import java.io.*;
@@ -22,9 +24,159 @@ public class InspectionController {
         return coldProportion;
     }
 
+    public static String getGitBackend() {
+        return gitBackend;
+    }
+
+    public static String getMiningMode() {
+        return miningMode;
+    }
+
+    public static int getBlobReaders() {
+        return blobReaders;
+    }
+
+    public static int getMiningWorkers() {
+        return miningWorkers;
+    }
+
+    public static int getGitMaxProcesses() {
+        return gitMaxProcesses;
+    }
+
+    public static long getGitTimeoutSeconds() {
+        return gitTimeoutSeconds;
+    }
+
+    public static int getRenameScore() {
+        return renameScore;
+    }
+
+    public static int getRenameLimit() {
+        return renameLimit;
+    }
+
+    public static String getHistoryMode() {
+        return historyMode;
+    }
+
+    public static String getFileUniverse() {
+        return fileUniverse;
+    }
+
+    public static String getFeatureEngine() {
+        return featureEngine;
+    }
+
+    public static String getJiraCacheDir() {
+        return jiraCacheDir;
+    }
+
+    public static long getJiraCacheTtlHours() {
+        return jiraCacheTtlHours;
+    }
+
+    public static boolean isJiraOffline() {
+        return jiraOffline;
+    }
+
+    public static int getJiraPageSize() {
+        return jiraPageSize;
+    }
+
+    public static int getJiraMaxRequests() {
+        return jiraMaxRequests;
+    }
+
+    public static int getJiraHostConnections() {
+        return jiraHostConnections;
+    }
+
+    public static long getJiraTimeoutSeconds() {
+        return jiraTimeoutSeconds;
+    }
+
+    public static int getJiraMaxRetries() {
+        return jiraMaxRetries;
+    }
+
+    public static long getJiraBackoffMillis() {
+        return jiraBackoffMillis;
+    }
+
+    public static String getJiraBaseUrl() {
+        return jiraBaseUrl;
+    }
+
+    public static String getJiraTicketStoreDir() {
+        return jiraTicketStoreDir;
+    }
+
+    public static String getReleaseCatalogDir() {
+        return releaseCatalogDir;
+    }
+
+    public static String getColdStartTable() {
+        return coldStartTable;
+    }
+
+    public static boolean isColdStartRefresh() {
+        return coldStartRefresh;
+    }
+
+    public static int getColdStartWorkers() {
+        return coldStartWorkers;
+    }
+
+    public static String getProportionEstimator() {
+        return proportionEstimator;
+    }
+
+    public static boolean isProportionCompare() {
+        return proportionCompare;
+    }
+
+    public static String getCommitStoreDir() {
+        return commitStoreDir;
+    }
+
+    public static int getBlobCacheMb() {
+        return blobCacheMb;
+    }
+
     private static boolean debug = false;
     private static boolean fullDebug = false;
     private static double coldProportion; // proportion average from the other 75 apache projects
+    private static String gitBackend = "cli"; // "cli" runs the git executable, "jgit" reads the repository in process
+    private static String miningMode = "per_commit"; // "per_commit" runs git for each commit, "single_pass" reads the history once
+    private static int blobReaders = 2; // number of "git cat-file --batch" processes kept open to read file contents
+    private static int blobCacheMb = 256; // memory budget of the cache of file contents, in MB
+    private static int miningWorkers = 1; // threads reading the commit changes concurrently (1 = sequential mining)
+    private static int gitMaxProcesses = Runtime.getRuntime().availableProcessors(); // git commands running at the same time
+    private static long gitTimeoutSeconds = 3600; // git commands running longer are killed (0 = no timeout)
+    private static int renameScore = 50; // min similarity (%) of a deleted and an added file to be a rename
+    private static int renameLimit = 1000; // max number of files for which renames are detected in a commit
+    private static String commitStoreDir = ""; // directory of the store of the mined commits (empty = no store)
+    private static String historyMode = "full"; // commits mined: "full" history, "first_parent" chain or "no_merges"
+    private static String fileUniverse = "replication"; // files of a release: "replication" of the touched files or "snapshot" of the release tree
+    private static String featureEngine = "commit"; // churn and size from each "commit" or from the diff of each "release" tree
+    private static String jiraCacheDir = ""; // directory of the cache of the JIRA responses (empty = no cache)
+    private static long jiraCacheTtlHours = 24; // cached JIRA responses older than this are requested again (0 = never)
+    private static boolean jiraOffline = false; // JIRA responses only from the cache, a missing response stops the run
+    private static int jiraPageSize = 1000; // issues requested with each page of a JIRA search
+    private static int jiraMaxRequests = 4; // pages of a JIRA search requested at the same time
+    private static int jiraHostConnections = 8; // JIRA requests in flight to the same host
+    private static long jiraTimeoutSeconds = 60; // JIRA requests not answered in time are retried
+    private static int jiraMaxRetries = 4; // retries of a JIRA request answered with 429 or 5xx, or timed out
+    private static long jiraBackoffMillis = 500; // delay before the first retry of a JIRA request, doubled at each retry
+    private static String jiraBaseUrl = "https://issues.apache.org/jira"; // JIRA server, e.g. a local stand-in for tests
+    private static String jiraTicketStoreDir = ""; // directory of the fixed tickets synced from JIRA (empty = full download each run)
+    private static String releaseCatalogDir = ""; // directory of the snapshots of the JIRA releases (empty = kept only in memory)
+    private static String coldStartTable = ""; // file of the P averages of the other projects (empty = computed each run)
+    private static boolean coldStartRefresh = false; // P averages of the other projects computed again, ignoring the table
+    private static int coldStartWorkers = 4; // other projects whose P average is computed at the same time
+    private static String proportionEstimator = "per_issue"; // IV of the bugs: "per_issue" as each bug is read, or an estimator of the bugs ordered by fix date
+    private static boolean proportionCompare = false; // all the IV estimators are run on the bugs and compared with the labeling used
 
     public static void simpleDebug(String msg) {
         if (debug) {
@@ -111,6 +263,63 @@ public class InspectionController {
         }
     }
 
+    /**
+     * Collects the settings used to mine the history, written together with the dataset
+     * @param commits the commits mined
+     * @return the metadata, as (name, value)
+     */
+    private static Map<String, String> miningMetadata(List<Commit> commits) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("history_mode", historyMode);
+        metadata.put("git_backend", gitBackend);
+        metadata.put("mining_mode", miningMode);
+        metadata.put("rename_score", String.valueOf(renameScore));
+        metadata.put("rename_limit", String.valueOf(renameLimit));
+        metadata.put("file_universe", fileUniverse);
+        metadata.put("feature_engine", featureEngine);
+        metadata.put("commits", String.valueOf(commits.size()));
+        return metadata;
+    }
+
+    /**
+     * Reads the settings of the analysis: settings missing from the properties keep their current value
+     * @param prop properties
+     */
+    public static void configure(Properties prop) {
+        debug = Boolean.parseBoolean(prop.getProperty("debug"));
+        fullDebug = Boolean.parseBoolean(prop.getProperty("full_debug"));
+        gitBackend = prop.getProperty("git_backend", gitBackend);
+        miningMode = prop.getProperty("mining_mode", miningMode);
+        blobReaders = Integer.parseInt(prop.getProperty("blob_readers", String.valueOf(blobReaders)));
+        blobCacheMb = Integer.parseInt(prop.getProperty("blob_cache_mb", String.valueOf(blobCacheMb)));
+        miningWorkers = Integer.parseInt(prop.getProperty("mining_workers", String.valueOf(miningWorkers)));
+        gitMaxProcesses = Integer.parseInt(prop.getProperty("git_max_processes", String.valueOf(gitMaxProcesses)));
+        gitTimeoutSeconds = Long.parseLong(prop.getProperty("git_timeout_s", String.valueOf(gitTimeoutSeconds)));
+        renameScore = Integer.parseInt(prop.getProperty("rename_score", String.valueOf(renameScore)));
+        renameLimit = Integer.parseInt(prop.getProperty("rename_limit", String.valueOf(renameLimit)));
+        commitStoreDir = prop.getProperty("commit_store_dir", commitStoreDir);
+        historyMode = prop.getProperty("history_mode", historyMode);
+        fileUniverse = prop.getProperty("file_universe", fileUniverse);
+        featureEngine = prop.getProperty("feature_engine", featureEngine);
+        jiraCacheDir = prop.getProperty("jira_cache_dir", jiraCacheDir);
+        jiraCacheTtlHours = Long.parseLong(prop.getProperty("jira_cache_ttl_h", String.valueOf(jiraCacheTtlHours)));
+        jiraOffline = Boolean.parseBoolean(prop.getProperty("jira_offline", String.valueOf(jiraOffline)));
+        jiraPageSize = Integer.parseInt(prop.getProperty("jira_page_size", String.valueOf(jiraPageSize)));
+        jiraMaxRequests = Integer.parseInt(prop.getProperty("jira_max_requests", String.valueOf(jiraMaxRequests)));
+        jiraHostConnections = Integer.parseInt(prop.getProperty("jira_host_connections", String.valueOf(jiraHostConnections)));
+        jiraTimeoutSeconds = Long.parseLong(prop.getProperty("jira_timeout_s", String.valueOf(jiraTimeoutSeconds)));
+        jiraMaxRetries = Integer.parseInt(prop.getProperty("jira_max_retries", String.valueOf(jiraMaxRetries)));
+        jiraBackoffMillis = Long.parseLong(prop.getProperty("jira_backoff_ms", String.valueOf(jiraBackoffMillis)));
+        jiraBaseUrl = prop.getProperty("jira_base_url", jiraBaseUrl);
+        jiraTicketStoreDir = prop.getProperty("jira_ticket_store_dir", jiraTicketStoreDir);
+        releaseCatalogDir = prop.getProperty("release_catalog_dir", releaseCatalogDir);
+        coldStartTable = prop.getProperty("cold_start_table", coldStartTable);
+        coldStartRefresh = Boolean.parseBoolean(prop.getProperty("cold_start_refresh", String.valueOf(coldStartRefresh)));
+        coldStartWorkers = Integer.parseInt(prop.getProperty("cold_start_workers", String.valueOf(coldStartWorkers)));
+        proportionEstimator = prop.getProperty("proportion_estimator", proportionEstimator);
+        proportionCompare = Boolean.parseBoolean(prop.getProperty("proportion_compare", String.valueOf(proportionCompare)));
+    }
+
     public static void main(String [] args) throws IOException {
 //		main flow of the application
         Properties prop = new Properties();
@@ -127,8 +336,7 @@ public class InspectionController {
             projName = prop.getProperty("project_name");
             projDir = prop.getProperty("project_dir");
             percent = Integer.parseInt(prop.getProperty("percent"));
-            debug = Boolean.parseBoolean(prop.getProperty("debug"));
-            fullDebug = Boolean.parseBoolean(prop.getProperty("full_debug"));
+            configure(prop);
 
         } catch (IOException e) {
             log = new StringBuilder("Error collecting project properties");
@@ -136,11 +344,11 @@ public class InspectionController {
         }
 
         /* instantiate project */
-        Project proj = new Project(projName, percent, projDir, prop);
+        Project proj = new Project(projName, percent, projDir);
 
         /* calculate the average P value of the other 75 project apache:
         * warning: this is valid just as a starting value not having analyzed any issue */
-        coldProportion = Issue.calculateColdStartProportion(projName, prop);
+        coldProportion = Issue.calculateColdStartProportion(projName);
 
         /* inspect project */
         simpleDebug("--> Inspecting project: " + proj.getProjName() +
@@ -160,6 +368,14 @@ public class InspectionController {
         simpleDebug("--> OK Setting bug issues...");
         List<Issue> issues = inspector.inspectProjectIssues();
         debugIssues(issues);
+        simpleDebug("--> JIRA cache: " + JiraResponseCache.getInstance().getHits() + " hits, "
+                + JiraResponseCache.getInstance().getMisses() + " misses");
+        simpleDebug("--> " + JiraClient.getInstance().report());
+
+        if (proportionCompare) {
+            simpleDebug("--> Comparing IV estimators: " + proj.getProjName() + "Proportion.csv");
+            CSVWriter.getInstance().writeEstimatorComparison(inspector.compareEstimators(), "Proportion", proj.getProjName());
+        }
 
         simpleDebug("--> OK Update bugginess...");
         inspector.updateBugginess(issues);
@@ -185,6 +401,9 @@ public class InspectionController {
         simpleDebug("--> Writing commits information to file: " + proj.getProjName() + "Commits.csv");
         CSVWriter.getInstance().writeCommitsInfo(proj.getRefCommits(), "Commits", proj.getProjName());
 
+        simpleDebug("--> Writing mining metadata to file: " + proj.getProjName() + "Metadata.csv");
+        CSVWriter.getInstance().writeMetadata(miningMetadata(commits), "Metadata", proj.getProjName());
+
         simpleDebug("--> Writing dataset: " + proj.getProjName() + "dataset.csv");
         CSVWriter.getInstance().writeDataset(obs, proj.getProjName());
 
@@ -0,0 +1,11 @@
+package org.example.logic.model.exceptions;
+
+/**
+ * A response needed in offline mode is not in cache: the run cannot go on without network access
+ */
+public class CacheMissException extends RuntimeException {
+
+    public CacheMissException(String message) {
+        super(message);
+    }
+}
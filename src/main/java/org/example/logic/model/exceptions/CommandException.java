@@ -5,4 +5,8 @@ public class CommandException extends Exception {
     public CommandException(String commandMalformed) {
         super(commandMalformed);
     }
+
+    public CommandException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
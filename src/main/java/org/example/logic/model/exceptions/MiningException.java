@@ -0,0 +1,12 @@
+package org.example.logic.model.exceptions;
+
+/**
+ * A git command needed to mine the repository failed or timed out: the run cannot go on, because the
+ * missing output would look like commits without changes
+ */
+public class MiningException extends RuntimeException {
+
+    public MiningException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
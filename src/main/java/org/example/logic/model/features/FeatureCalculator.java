@@ -49,40 +49,16 @@ public class FeatureCalculator {
 
 
     /**
-     * Updates LOC of a record (Size).
+     * Updates LOC of a record (Size): lines of the file that are not comments.
      * (the value is already calculated as cumulative in release)
-     * @param lines array with file content lines
+     * @param locCount line counts of the file content
      * @param rec record to update
      */
-    public static void updateLOC(String[] lines, Record rec) {
-        boolean multi = false;
-
-        int loc = lines.length;
-        if (loc == 0) {
+    public static void updateLOC(LocCount locCount, Record rec) {
+        if (locCount.isEmpty()) {
             return;
         }
-
-        String line;
-        for (String s : lines) {
-
-            line = s;
-
-            if (multi) {
-                loc--;
-
-                if (line.contains("*/")) {
-                    multi = false;
-                }
-            } else if (line.contains("//")) {
-                loc--;
-            } else if (line.contains("/*")) {
-                loc--;
-                multi = true;
-            }
-
-        }
-
-        rec.setSize(loc);
+        rec.setSize(locCount.getSize());
     }
 
     /**
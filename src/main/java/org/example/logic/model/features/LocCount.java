@@ -0,0 +1,46 @@
+package org.example.logic.model.features;
+
+/**
+ * Line counts of a file content (the content itself is not retained)
+ */
+public class LocCount {
+
+    public static final LocCount EMPTY = new LocCount(0, 0, 0, 0);
+    /* estimated heap occupied by an instance */
+    public static final long WEIGHT = 32;
+
+    private final int lines; // number of lines of the file
+    private final int size; // lines that are not comments (Size feature)
+    private final int commentLines;
+    private final int blankLines;
+
+    public LocCount(int lines, int size, int commentLines, int blankLines) {
+        this.lines = lines;
+        this.size = size;
+        this.commentLines = commentLines;
+        this.blankLines = blankLines;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCommentLines() {
+        return commentLines;
+    }
+
+    public int getBlankLines() {
+        return blankLines;
+    }
+
+    /**
+     * @return true if the file has no lines (missing, deleted or empty file)
+     */
+    public boolean isEmpty() {
+        return lines == 0;
+    }
+}
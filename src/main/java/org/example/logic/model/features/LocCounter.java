@@ -0,0 +1,115 @@
+package org.example.logic.model.features;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-level state machine that counts the lines of a file content while it is read, chunk by chunk.
+ * Lines are split as BufferedReader.readLine does ("\n", "\r" or "\r\n"); a line is a comment line
+ * if it is inside a block comment, or it contains "//" or "/*" (a block comment goes on until a line
+ * containing its end).
+ */
+public class LocCounter {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private int lines;
+    private int commentLines;
+    private int blankLines;
+    private boolean multi; // inside a block comment
+    /* state of the current line */
+    private boolean lineStarted;
+    private boolean blank = true;
+    private boolean lineComment;
+    private boolean blockStart;
+    private boolean blockEnd;
+    private int prev = -1;
+    private boolean prevCR;
+
+    /**
+     * Counts the lines of a whole content
+     * @param content the file content
+     * @return the line counts
+     */
+    public static LocCount count(byte[] content) {
+        LocCounter counter = new LocCounter();
+        counter.update(ByteBuffer.wrap(content));
+        return counter.finish();
+    }
+
+    /**
+     * Counts the lines of a content read from a stream, without retaining it
+     * @param input the stream of the file content
+     * @return the line counts
+     * @throws IOException error reading the stream
+     */
+    public static LocCount count(InputStream input) throws IOException {
+        LocCounter counter = new LocCounter();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            counter.update(ByteBuffer.wrap(buffer, 0, read));
+        }
+        return counter.finish();
+    }
+
+    /**
+     * Feeds the next chunk of the content
+     * @param chunk the bytes to consume
+     */
+    public void update(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            int b = chunk.get() & 0xFF;
+            if (prevCR && b == '\n') {
+                /* "\r\n" terminates a single line */
+                prevCR = false;
+                continue;
+            }
+            prevCR = b == '\r';
+            if (b == '\n' || b == '\r') {
+                endLine();
+                continue;
+            }
+
+            lineStarted = true;
+            if (b != ' ' && b != '\t' && b != '\f') blank = false;
+            if (prev == '/' && b == '/') lineComment = true;
+            if (prev == '/' && b == '*') blockStart = true;
+            if (prev == '*' && b == '/') blockEnd = true;
+            prev = b;
+        }
+    }
+
+    /**
+     * Ends the content
+     * @return the line counts
+     */
+    public LocCount finish() {
+        /* last line without terminator */
+        if (lineStarted) endLine();
+        return new LocCount(lines, lines - commentLines, commentLines, blankLines);
+    }
+
+    private void endLine() {
+        lines++;
+        if (blank) blankLines++;
+
+        if (multi) {
+            commentLines++;
+            if (blockEnd) multi = false;
+        } else if (lineComment) {
+            commentLines++;
+        } else if (blockStart) {
+            commentLines++;
+            multi = true;
+        }
+
+        lineStarted = false;
+        blank = true;
+        lineComment = false;
+        blockStart = false;
+        blockEnd = false;
+        prev = -1;
+    }
+}
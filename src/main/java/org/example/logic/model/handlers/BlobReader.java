@@ -0,0 +1,52 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.features.LocCounter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the content of the blobs stored in a Git repository
+ */
+public interface BlobReader extends Closeable {
+
+    /**
+     * Reads the content of a blob
+     * @param revision the blob to read, as a blob id or as "commit:path"
+     * @return the blob content, or null if the blob does not exist
+     * @throws IOException error reading the repository
+     */
+    byte[] readBlob(String revision) throws IOException;
+
+    /**
+     * Reads the content of many blobs. Implementations may pipeline the requests.
+     * @param revisions the blobs to read, as blob ids or as "commit:path"
+     * @return the blobs content, in the same order of the requests (null for missing blobs)
+     * @throws IOException error reading the repository
+     */
+    default List<byte[]> readBlobs(List<String> revisions) throws IOException {
+        List<byte[]> contents = new ArrayList<>(revisions.size());
+        for (String revision : revisions) {
+            contents.add(readBlob(revision));
+        }
+        return contents;
+    }
+
+    /**
+     * Counts the lines of many blobs. Implementations may stream the contents through the counter
+     * instead of loading each blob in memory.
+     * @param revisions the blobs to read, as blob ids or as "commit:path"
+     * @return the line counts, in the same order of the requests (null for missing blobs)
+     * @throws IOException error reading the repository
+     */
+    default List<LocCount> countLines(List<String> revisions) throws IOException {
+        List<LocCount> counts = new ArrayList<>(revisions.size());
+        for (byte[] content : readBlobs(revisions)) {
+            counts.add(content != null ? LocCounter.count(content) : null);
+        }
+        return counts;
+    }
+}
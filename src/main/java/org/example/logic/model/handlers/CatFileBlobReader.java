@@ -0,0 +1,255 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.features.LocCounter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Blob reader that keeps a small pool of long-lived "git cat-file --batch" processes open on the repository.
+ * Requests are written on the process input and the length-prefixed contents are read back from the same pipe.
+ */
+public class CatFileBlobReader implements BlobReader {
+
+    private static final String[] BATCH_COMMAND = {"git", "cat-file", "--batch"};
+    /* requests written before reading the answers: kept well below the pipe buffer size, so that
+       git is never blocked writing answers while we are still writing requests */
+    private static final int MAX_PIPELINED_BYTES = 16 * 1024;
+
+    private final File workDir;
+    private final int poolSize;
+    private final BlockingQueue<BatchProcess> idle;
+    private final List<BatchProcess> started;
+    private boolean closed;
+
+    /**
+     * @param workDir the git working directory
+     * @param poolSize max number of cat-file processes kept open
+     */
+    public CatFileBlobReader(File workDir, int poolSize) {
+        this.workDir = workDir;
+        this.poolSize = Math.max(1, poolSize);
+        this.idle = new ArrayBlockingQueue<>(this.poolSize);
+        this.started = new ArrayList<>();
+    }
+
+    @Override
+    public byte[] readBlob(String revision) throws IOException {
+        return readBlobs(Collections.singletonList(revision)).get(0);
+    }
+
+    @Override
+    public List<byte[]> readBlobs(List<String> revisions) throws IOException {
+        return request(revisions, BatchProcess::response);
+    }
+
+    @Override
+    public List<LocCount> countLines(List<String> revisions) throws IOException {
+        return request(revisions, BatchProcess::countLines);
+    }
+
+    /**
+     * Sends the requests to a cat-file process of the pool and reads back the answers
+     * @param revisions the objects requested
+     * @param reader reads a single answer from the process
+     * @return the answers, in the same order of the requests
+     * @throws IOException error communicating with the process
+     */
+    private <T> List<T> request(List<String> revisions, ResponseReader<T> reader) throws IOException {
+        List<T> results = new ArrayList<>(revisions.size());
+        BatchProcess process = acquire();
+        boolean healthy = false;
+        try {
+            int next = 0;
+            while (next < revisions.size()) {
+                /* write a window of requests, then read all their answers */
+                int end = next;
+                int written = 0;
+                while (end < revisions.size() && (end == next || written < MAX_PIPELINED_BYTES)) {
+                    written += process.request(revisions.get(end));
+                    end++;
+                }
+                process.flush();
+                for (; next < end; next++) {
+                    results.add(reader.read(process));
+                }
+            }
+            healthy = true;
+        } finally {
+            release(process, healthy);
+        }
+        return results;
+    }
+
+    /**
+     * Reads a single answer from a cat-file process
+     * @param <T> the type of the answer
+     */
+    private interface ResponseReader<T> {
+        T read(BatchProcess process) throws IOException;
+    }
+
+    /**
+     * Takes an idle process from the pool, starting a new one if the pool is not full
+     * @return a cat-file process
+     * @throws IOException the process cannot be started
+     */
+    private BatchProcess acquire() throws IOException {
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (closed) throw new IOException("Blob reader closed");
+                    BatchProcess process = idle.poll();
+                    if (process != null) return process;
+                    if (started.size() < poolSize) {
+                        /* long-lived processes: the pool size bounds them, not the executor slots */
+                        process = new BatchProcess(GitProcessExecutor.getInstance().startPersistent(BATCH_COMMAND, workDir));
+                        started.add(process);
+                        return process;
+                    }
+                }
+                /* all the processes are busy: wait for one (or for a discarded one to be replaced) */
+                BatchProcess process = idle.poll(100, TimeUnit.MILLISECONDS);
+                if (process != null) return process;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a cat-file process", e);
+        }
+    }
+
+    /**
+     * Gives a process back to the pool. A process left in an unknown state (e.g. a response
+     * not completely read) is discarded.
+     * @param process the process
+     * @param healthy whether the process can be reused
+     */
+    private synchronized void release(BatchProcess process, boolean healthy) {
+        if (healthy && !closed) {
+            idle.add(process);
+            return;
+        }
+        started.remove(process);
+        process.close();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (BatchProcess process : started) {
+            process.close();
+        }
+        started.clear();
+        idle.clear();
+    }
+
+    /**
+     * A running "git cat-file --batch" process
+     */
+    private static class BatchProcess {
+
+        private final GitProcess process;
+        private final OutputStream input;
+        private final InputStream output;
+        private final byte[] chunk = new byte[8192];
+
+        BatchProcess(GitProcess process) {
+            this.process = process;
+            this.input = new BufferedOutputStream(process.getOutputStream());
+            this.output = new BufferedInputStream(process.getInputStream());
+        }
+
+        /**
+         * Writes a request, without flushing it
+         * @param revision the object requested
+         * @return number of bytes written
+         */
+        int request(String revision) throws IOException {
+            byte[] line = (revision + "\n").getBytes(StandardCharsets.UTF_8);
+            input.write(line);
+            return line.length;
+        }
+
+        void flush() throws IOException {
+            input.flush();
+        }
+
+        /**
+         * Reads an answer: "<id> <type> <size>" followed by the content, or "<revision> missing"
+         * @return the content, null if the object is missing or it is not a blob
+         */
+        byte[] response() throws IOException {
+            String[] header = readHeader();
+            if (header == null) return null;
+            int size = Integer.parseInt(header[2]);
+            byte[] content = output.readNBytes(size);
+            if (content.length != size || output.read() != '\n') throw new IOException("Truncated cat-file output");
+            return header[1].equals("blob") ? content : null;
+        }
+
+        /**
+         * Reads an answer streaming the content through a line counter, chunk by chunk
+         * @return the line counts, null if the object is missing or it is not a blob
+         */
+        LocCount countLines() throws IOException {
+            String[] header = readHeader();
+            if (header == null) return null;
+            int remaining = Integer.parseInt(header[2]);
+            LocCounter counter = new LocCounter();
+            while (remaining > 0) {
+                int read = output.read(chunk, 0, Math.min(chunk.length, remaining));
+                if (read == -1) throw new IOException("Truncated cat-file output");
+                counter.update(ByteBuffer.wrap(chunk, 0, read));
+                remaining -= read;
+            }
+            if (output.read() != '\n') throw new IOException("Truncated cat-file output");
+            return header[1].equals("blob") ? counter.finish() : null;
+        }
+
+        /**
+         * Reads the header of an answer
+         * @return id, type and size of the object, null if the object is missing
+         */
+        private String[] readHeader() throws IOException {
+            String header = readLine();
+            if (header == null) throw new IOException("cat-file process terminated");
+            if (header.endsWith(" missing") || header.endsWith(" ambiguous")) return null;
+            return header.split(" ");
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = output.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            if (b == -1 && line.size() == 0) return null;
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                Logger.getGlobal().log(Level.FINE, e.getMessage());
+            }
+            process.close();
+        }
+    }
+}
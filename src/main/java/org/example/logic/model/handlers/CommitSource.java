@@ -0,0 +1,33 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.model.keyabstractions.Commit;
+
+import java.util.List;
+
+/**
+ * Source of the commits of the project history
+ */
+public interface CommitSource {
+
+    /**
+     * Retrieves the commits of the project, ordered by date
+     * @return the list of the commits retrieved
+     */
+    default List<Commit> lookupForCommits() {
+        return lookupForCommits(null);
+    }
+
+    /**
+     * Retrieves the commits of the project reachable from HEAD but not from a previous commit
+     * (i.e. the commits arrived after it), ordered by date
+     * @param since full sha of the previous commit, null to retrieve all the commits
+     * @return the list of the commits retrieved
+     */
+    List<Commit> lookupForCommits(String since);
+
+    /**
+     * Lists the full sha of all the commits of the project, in history order (no changes are read)
+     * @return the commit ids
+     */
+    List<String> lookupForCommitIds();
+}
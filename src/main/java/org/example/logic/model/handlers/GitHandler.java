@@ -1,10 +1,15 @@
 package org.example.logic.model.handlers;
 
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.features.LocCount;
 import org.example.logic.model.exceptions.CommandException;
+import org.example.logic.model.exceptions.MiningException;
 import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.FileChange;
 import org.example.logic.model.keyabstractions.JFile;
 import org.example.logic.model.keyabstractions.Project;
 import org.example.logic.model.keyabstractions.Release;
+import org.example.logic.model.utils.BlobCache;
 import org.example.logic.model.utils.Parser;
 
 import java.io.BufferedReader;
@@ -15,104 +20,301 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Class that interacts with Git
  */
-public class GitHandler {
+public class GitHandler implements CommitSource {
+
+    /* commit line format: full sha, date, message and author separated by '<'. The abbreviated sha is not
+       printed: with --no-abbrev (full blob ids in the raw lines) git would print it in full */
+    private static final String PRETTY_FORMAT = "%H<%as<MES=%s<AUTHOR=%an";
+    private static final int ABBREV_LENGTH = 7; // length of the abbreviated sha, as in JGitHandler
 
     private final Project project;
+    private BlobReader blobReader;
+    private BlobCache<LocCount> blobCache;
 
     public GitHandler(Project project) {
         this.project = project;
     }
 
     /**
-     * Runs a git command
-     * @param cmdArgs command arguments array
-     * @param workDir git working directory
-     * @return a Process instance
-     * @throws IOException
+     * Gets the reader used to retrieve file contents, opening it on first use: a pool of
+     * "git cat-file --batch" processes, or JGit when the jgit backend is selected
+     * @return the blob reader of the project repository
+     * @throws IOException the reader cannot be opened
+     */
+    public synchronized BlobReader getBlobReader() throws IOException {
+        if (blobReader == null) {
+            if (InspectionController.getGitBackend().equalsIgnoreCase("jgit")) {
+                blobReader = new JGitBlobReader(new JGitHandler(project).openRepository());
+            } else {
+                blobReader = new CatFileBlobReader(new File(project.getProjDir()),
+                        InspectionController.getBlobReaders());
+            }
+        }
+        return blobReader;
+    }
+
+    /**
+     * Gets the cache of the line counts of the file contents read, keyed by blob id
+     * @return the blob cache
      */
-    public Process runGitCommand(String [] cmdArgs, File workDir) throws IOException {
-        ProcessBuilder build = new ProcessBuilder(cmdArgs);
-        String command = Parser.getInstance().listToString(build.command());
-        build.directory(workDir);
+    public synchronized BlobCache<LocCount> getBlobCache() {
+        if (blobCache == null) {
+            long budget = InspectionController.getBlobCacheMb() * 1024L * 1024L;
+            blobCache = new BlobCache<>(budget, locCount -> LocCount.WEIGHT);
+        }
+        return blobCache;
+    }
+
+    /**
+     * Closes the blob reader (and its processes), if open
+     */
+    public synchronized void closeBlobReader() {
+        if (blobReader == null) return;
         try {
-            return build.start();
+            blobReader.close();
         } catch (IOException e) {
-            throw new IOException("Something occurred while running shell command:"+command, e);
+            Logger.getGlobal().log(Level.WARNING, e.getMessage());
         }
+        blobReader = null;
     }
 
     /**
-     * Gets the output of a Git command
+     * Runs a git command through the process executor, which bounds the git processes running at the same time
+     * @param cmdArgs command arguments array
+     * @param workDir git working directory
+     * @return the running git process
+     * @throws IOException
+     */
+    public GitProcess runGitCommand(String [] cmdArgs, File workDir) throws IOException {
+        return GitProcessExecutor.getInstance().start(cmdArgs, workDir);
+    }
+
+    /**
+     * Gets the output of a Git command. Closing the reader waits for the command to end: a command that
+     * failed or timed out is reported as an IOException, instead of looking like an empty output
      * @param args the command args
      * @return a BufferedReader to the output
      * @throws CommandException error during Git command
      */
     public BufferedReader getCommandOutput(String[] args) throws CommandException {
-        BufferedReader input;
         try {
             File dir = new File(project.getProjDir());
-            Process inputProcess = runGitCommand(args, dir);
-            input = new BufferedReader(new InputStreamReader(inputProcess.getInputStream()));
-            return input;
+            GitProcess process = runGitCommand(args, dir);
+            return new BufferedReader(new InputStreamReader(process.getInputStream())) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        process.finish();
+                    } catch (CommandException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                }
+            };
         } catch (IOException e) {
             Logger.getGlobal().log(Level.SEVERE, e.getMessage());
-            e.printStackTrace();
+            throw new CommandException("Command malformed", e);
         }
-        throw new CommandException("Command malformed");
     }
 
     /**
-     * Uses git to retrieve commits for the project specified in class field @project
+     * Uses git to retrieve commits for the project specified in class field @project.
+     * The history is read as a single stream: the raw and numstat lines following each commit are kept as
+     * the commit changes (change type and line counts), so that the files can be mined without running
+     * git again for each commit
      * Commits on side branches are excluded, because may affect "git show" output filenames
+     * @param since full sha of a previous commit: only the commits not reachable from it are retrieved
+     *              (null to retrieve all the commits)
      * @return the list of the commits retrieved
      */
-    public List<Commit> lookupForCommits() {
-        String [] args = {"git", "log", "--full-history", "--date-order", "--reverse",
-                "--pretty=format:\"%h<%as<MES=%s<AUTHOR=%an\"",
-                "--numstat"};
+    @Override
+    public List<Commit> lookupForCommits(String since) {
+        List<String> args = new ArrayList<>(List.of("git", "log"));
+        args.addAll(historyArgs());
+        args.addAll(List.of("--date-order", "--reverse", "--pretty=format:" + PRETTY_FORMAT,
+                "--raw", "--no-abbrev", "--numstat", renameScoreArg(), renameLimitArg(), "HEAD"));
+        if (since != null) args.add("^" + since);
         List<Commit> cs = new ArrayList<>();
-        try {
-            BufferedReader input = getCommandOutput(args);
-
-            String[] lines = input.lines()
-                    .collect(Collectors.joining(System.lineSeparator()))
-                    .replace("\r", "")
-                    .split("\n");
-            List<String> linesList = Arrays.stream(lines)
-                    .filter(s -> !s.equals(" "))
-                    .toList();
-
-            cs = linesList.parallelStream()
-                    .filter(line -> line.contains("<"))
-                    .map(line -> {
-                        StringTokenizer st = new StringTokenizer(line, "<");
-                        String sha = st.nextToken();
-                        LocalDateTime date = Parser.getInstance().parseDateToLocalDateTime(st.nextToken());
-                        String ticketRef = st.nextToken();
-                        String author = st.nextToken();
-
-                        /* create a new commit instance with the parameters retrieved */
-                        Commit commit = new Commit(project, sha, ticketRef, date, author);
-                        /* assign a version to the new commit */
-                        Release commitRelease = Release.findVersionByDate(project.getVersions(), commit.getDate());
-                        commit.setVersion(commitRelease);
-                        return commit;
-                    }).collect(Collectors.toList());
+        try (BufferedReader input = getCommandOutput(args.toArray(new String[0]))) {
+            Commit commit = null;
+            Deque<FileChange> rawChanges = new ArrayDeque<>();
+            String line;
+            while ((line = input.readLine()) != null) {
+                FileChange change = parseChangeLine(line, rawChanges);
+                if (change != null) {
+                    /* numstat line: the change belongs to the last commit read */
+                    if (commit != null && change.isJavaFile()) commit.addChange(change);
+                } else if (!line.startsWith(":") && line.contains("<")) {
+                    commit = parseCommitLine(line);
+                    rawChanges.clear();
+                    cs.add(commit);
+                }
+            }
 
             /* Order commits retrieved by date */
             cs.sort(Comparator.comparing(Commit::getDate));
-        }catch (CommandException e) {
-            e.printStackTrace();
+        } catch (CommandException | IOException e) {
+            throw new MiningException("Cannot read the history of " + project.getProjName(), e);
         }
 
         return cs;
     }
 
+    /**
+     * Lists the commits of the project with "git log", without reading their changes
+     * @return the full sha of the commits, in history order
+     */
+    @Override
+    public List<String> lookupForCommitIds() {
+        List<String> args = new ArrayList<>(List.of("git", "log"));
+        args.addAll(historyArgs());
+        args.addAll(List.of("--date-order", "--reverse", "--format=%H", "HEAD"));
+        List<String> ids = new ArrayList<>();
+        try (BufferedReader input = getCommandOutput(args.toArray(new String[0]))) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                if (!line.isEmpty()) ids.add(line);
+            }
+        } catch (CommandException | IOException e) {
+            throw new MiningException("Cannot list the commits of " + project.getProjName(), e);
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the "git log" options selecting the commits of the history mode in the config file.
+     * In every mode merges are diffed against their first parent, as "git show" and JGit do: without the
+     * option "git log" prints no changes for merges
+     * @return the options
+     */
+    private List<String> historyArgs() {
+        return switch (InspectionController.getHistoryMode().toLowerCase()) {
+            /* merges carry the changes of the merged branch */
+            case "first_parent" -> List.of("--first-parent", "--diff-merges=first-parent");
+            case "no_merges" -> List.of("--full-history", "--no-merges");
+            default -> List.of("--full-history", "--diff-merges=first-parent");
+        };
+    }
+
+    /**
+     * Parses a commit line produced with the pretty format
+     * @param line the line to parse
+     * @return the commit, with its release assigned
+     */
+    private Commit parseCommitLine(String line) {
+        StringTokenizer st = new StringTokenizer(line, "<");
+        String fullSha = st.nextToken();
+        String sha = fullSha.substring(0, Math.min(ABBREV_LENGTH, fullSha.length()));
+        LocalDateTime date = Parser.getInstance().parseDateToLocalDateTime(st.nextToken());
+        String ticketRef = st.nextToken();
+        String author = st.nextToken();
+
+        /* create a new commit instance with the parameters retrieved */
+        Commit commit = new Commit(project, sha, ticketRef, date, author);
+        commit.setFullShaId(fullSha);
+        /* assign a version to the new commit */
+        Release commitRelease = project.getTimeline().findVersionByDate(commit.getDate());
+        commit.setVersion(commitRelease);
+        return commit;
+    }
+
+    /**
+     * Parses a line describing a file change. Raw lines (":oldmode newmode oldid newid status TAB paths")
+     * carry the change type and are queued; each numstat line ("additions TAB deletions TAB path") is then
+     * matched with the raw line of the same file, since git prints both in the same order
+     * @param line the line to parse
+     * @param rawChanges queue of the raw changes of the commit not yet matched
+     * @return the change described by a numstat line, or null for any other line
+     */
+    private static FileChange parseChangeLine(String line, Deque<FileChange> rawChanges) {
+        /* combined diff of a merge ("::" lines): not paired with the numstat lines, that are against the first parent */
+        if (line.startsWith("::")) return null;
+        if (line.startsWith(":")) {
+            FileChange raw = parseRawLine(line);
+            if (raw != null) rawChanges.add(raw);
+            return null;
+        }
+
+        String[] tokens = line.split("\\t", 3);
+        if (tokens.length != 3 || !isCount(tokens[0]) || !isCount(tokens[1])) return null;
+
+        /* binary files have no line counts */
+        int addition = tokens[0].equals("-") ? 0 : Integer.parseInt(tokens[0]);
+        int deletion = tokens[1].equals("-") ? 0 : Integer.parseInt(tokens[1]);
+        FileChange raw = rawChanges.poll();
+        if (raw != null) {
+            return new FileChange(raw.getType(), raw.getOldPath(), raw.getPath(), raw.getOldBlobId(), raw.getBlobId(),
+                    addition, deletion);
+        }
+
+        /* no raw line (e.g. combined diff of a merge): recover the paths from the numstat text */
+        String file = tokens[2];
+        String filepath = Parser.getInstance().parseFilePathFromLine(file, false);
+        String filepathOld = Parser.getInstance().parseFilePathFromLine(file, true);
+        FileChange.Type type = filepath.equals(filepathOld) ? FileChange.Type.MODIFIED : FileChange.Type.RENAMED;
+        return new FileChange(type, filepathOld, filepath, null, null, addition, deletion);
+    }
+
+    /**
+     * Parses a raw diff line
+     * @param line the line to parse
+     * @return the change (without line counts), or null if the line is malformed
+     */
+    private static FileChange parseRawLine(String line) {
+        String[] fields = line.split("\\t");
+        String[] info = fields[0].split(" ");
+        if (fields.length < 2 || info.length < 5) return null;
+        String path = fields[fields.length - 1];
+        String oldPath = fields[1];
+        String oldBlobId = isNullId(info[2]) ? null : info[2];
+        String blobId = isNullId(info[3]) ? null : info[3];
+        FileChange.Type type;
+        switch (info[4].charAt(0)) {
+            case 'A', 'C' -> {
+                /* a copy adds a new file, the source is left untouched */
+                type = FileChange.Type.ADDED;
+                oldPath = path;
+            }
+            case 'D' -> type = FileChange.Type.DELETED;
+            case 'R' -> type = FileChange.Type.RENAMED;
+            default -> type = FileChange.Type.MODIFIED;
+        }
+        return new FileChange(type, oldPath, path, oldBlobId, blobId, 0, 0);
+    }
+
+    private static boolean isNullId(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) != '0') return false;
+        }
+        return true;
+    }
+
+    private static boolean isCount(String token) {
+        if (token.equals("-")) return true;
+        if (token.isEmpty()) return false;
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the option of the minimum similarity for which git detects a rename (same threshold of JGit)
+     */
+    private String renameScoreArg() {
+        return "-M" + InspectionController.getRenameScore() + "%";
+    }
+
+    /**
+     * @return the option of the max number of files for which git tries to detect renames
+     */
+    private String renameLimitArg() {
+        return "-l" + InspectionController.getRenameLimit();
+    }
+
     /**
      * Search using git command "git show".This command takes the sha of a commit and lists all the files modified
      * (added, deleted, modified) by the specified commit.
@@ -121,117 +323,223 @@ public class GitHandler {
      * like additions and deletions
      */
     public List<JFile> lookupForFiles(Commit commit) {
-        String [] args = {"git", "show", commit.getShaId(),
-                "--pretty=format:\"%h<%as<MES=%s<AUTHOR=%an\"",
-                "--numstat"};
+        return applyChanges(commit, readChanges(commit));
+    }
+
+    /**
+     * Reads with "git show" the changes made by a commit, without applying them to the project files
+     * @param commit the commit
+     * @return the changes made on java files
+     */
+    private List<FileChange> readChanges(Commit commit) {
+        List<String> args = new ArrayList<>(List.of("git", "show", commit.getFullShaId(),
+                "--pretty=format:" + PRETTY_FORMAT,
+                "--raw", "--no-abbrev", "--numstat", "--diff-merges=first-parent", renameScoreArg(), renameLimitArg()));
+        try (BufferedReader input = getCommandOutput(args.toArray(new String[0]))) {
+            return parseChanges(input);
+        } catch (CommandException | IOException e) {
+            throw new MiningException("Cannot read the changes of commit " + commit.getFullShaId(), e);
+        }
+    }
+
+    /**
+     * Parses the changes printed for a single commit by "git show" with --raw and --numstat
+     * @param input the output of the command
+     * @return the changes made on java files, in the order of the numstat lines
+     * @throws IOException error reading the output
+     */
+    public static List<FileChange> parseChanges(BufferedReader input) throws IOException {
+        List<FileChange> changes = new ArrayList<>();
+        Deque<FileChange> rawChanges = new ArrayDeque<>();
+        String line;
+        while ((line = input.readLine()) != null) {
+            FileChange change = parseChangeLine(line, rawChanges);
+            if (change != null && change.isJavaFile()) changes.add(change);
+        }
+        return changes;
+    }
+
+    /**
+     * Applies to the project files the changes read from the history for the commit
+     * (no git process is needed to find the touched files)
+     * @param commit the commit whose changes are applied
+     * @return the list of unique files touched by the commit
+     */
+    public List<JFile> applyChanges(Commit commit) {
+        return applyChanges(commit, commit.getChanges());
+    }
+
+    /**
+     * Applies changes made by a commit to the project files, calculating file features
+     * like additions and deletions
+     * @param commit the commit that made the changes
+     * @param changes the changes made by the commit
+     * @return the list of unique files touched by the commit
+     */
+    private List<JFile> applyChanges(Commit commit, List<FileChange> changes) {
+        return applyChanges(new MinedCommit(commit, changes, readLocCounts(commit, changes)));
+    }
+
+    /**
+     * Reads everything a commit changed (touched files and line counts of their new contents) without
+     * modifying the project files: many commits can be read concurrently, then applied in commit order
+     * @param commit the commit
+     * @param fromHistory true to use the changes already read with the history, false to run "git show"
+     * @return the changes read, to be applied with {@link #applyChanges(MinedCommit)}
+     */
+    public MinedCommit mineCommit(Commit commit, boolean fromHistory) {
+        List<FileChange> changes = fromHistory ? commit.getChanges() : readChanges(commit);
+        return new MinedCommit(commit, changes, readLocCounts(commit, changes));
+    }
+
+    /**
+     * Reads only the files touched by a commit, from the changes already read with the history: file contents
+     * are not read (the line counts are left empty), for features computed once for each release
+     * @param commit the commit
+     * @return the changes read, to be applied with {@link #applyChanges(MinedCommit)}
+     */
+    public MinedCommit mineTouchedFiles(Commit commit) {
+        List<FileChange> changes = commit.getChanges();
+        return new MinedCommit(commit, changes, Collections.nCopies(changes.size(), LocCount.EMPTY));
+    }
+
+    /**
+     * Applies the changes read for a commit to the project files. Files are looked up and modified
+     * in the project, so commits must be applied one at a time, in commit order
+     * @param mined the changes read for the commit
+     * @return the list of unique files touched by the commit
+     */
+    public List<JFile> applyChanges(MinedCommit mined) {
         List<JFile> files = new ArrayList<>();
-        try {
-            BufferedReader input = getCommandOutput(args);
-            String[] lines = input.lines()
-                    .collect(Collectors.joining(System.lineSeparator()))
-                    .replace("\r", "")
-                    .split("\n");
-            List<String> linesJavaList = Arrays.stream(lines).toList();
-
-            /* renamed files */
-            files = linesJavaList.stream()
-                    .filter(line -> line.contains(".java") && !line.contains("<"))
-                    .map(line -> {
-                        StringTokenizer stringTokenizer = new StringTokenizer(line, "\t");
-                        int addition = Integer.parseInt(stringTokenizer.nextToken());
-                        int deletion = Integer.parseInt(stringTokenizer.nextToken());
-                        String file = stringTokenizer.nextToken();
-                        if (line.contains("=>")) {
-                            /* this branch implements the case in which the file is renamed by the commit:
-                               this case is handled adding a new file, that takes the characteristics of the
-                               old file.
-                             */
-                            String filepath = Parser.getInstance().parseFilePathFromLine(file, false);
-                            String filename = Parser.getInstance().parseFilenameFromFilepath(filepath);
-                            String filepathOld = Parser.getInstance().parseFilePathFromLine(file, true);
-                            String filenameOld = Parser.getInstance().parseFilenameFromFilepath(filepathOld);
-
-                            /* OLD FILE
-                                - search old file from existing files
-                                - remove the commit release from the list of releases of the file
-                            */
-                            JFile oldFile = project.getFile(commit, filenameOld, filepathOld);
-
-                            /* NEW FILE
-                                - create new file inheriting old file stats
-                                - add commit release to the list of the releases in file
-                                - add the commit to the list of revisions
-                                - update file stats (additions, deletions...)
-                                - add file to list of files touched by the commit
-                             */
-                            JFile newFile = new JFile(commit.getVersion(), filename, filepath, oldFile);
-                            newFile.addAndFillRelease(commit.getVersion());
-                            newFile.addRevision(commit);
-                            updateFileFeatures(newFile, commit, addition, deletion);
-                            commit.addTouchedFile(newFile);
-
-                            // set renaming of the file
-                            oldFile.setRenamed(commit.getVersion(), newFile);
-                            project.removeFile(commit.getVersion().getIndex(), oldFile);
-                            return newFile;
-                        }
-
-                        if (deletion != 0 && addition == 0) {
-                            /* file is candidate to be deleted */
-                            String filepath = Parser.getInstance().parseFilePathFromLine(file, false);
-                            String filename = Parser.getInstance().parseFilenameFromFilepath(file);
-
-                            if (checkGitIfDeleted(commit.getShaId(), filepath)) {
-                                JFile f = project.getFile(commit, filename, filepath);
-                                // aggiungi il commit alla lista delle revisioni del file
-                                f.addRevision(commit);
-                                // aggiorna le caratteristiche del file
-                                updateFileFeatures(f, commit, addition, deletion);
-                                // aggiungi il nuovo file alla lista dei file committati
-                                commit.addTouchedFile(f);
-                                // set deletion release of file
-                                f.setDeleted(commit.getVersion());
-                                project.removeFile(commit.getVersion().getIndex(), f);
-                                return f;
-                            }
-                        }
-                        /* file is added or modified */
-                        String filepath = Parser.getInstance().parseFilePathFromLine(file, false);
-                        String filename = Parser.getInstance().parseFilenameFromFilepath(file);
-
-                        // cerca il file, altrimenti creane uno nuovo
-                        JFile f = project.getFile(commit, filename, filepath);
-                        // aggiungi il commit alla lista delle revisioni del file
-                        f.addRevision(commit);
-                        //aggiungi la release del commit al file
-                        f.addAndFillRelease(commit.getVersion());
-                        // aggiorna le caratteristiche del file
-                        updateFileFeatures(f, commit, addition, deletion);
-                        commit.addTouchedFile(f);
-                        return f;
-                            }).toList();
-        } catch (CommandException e) {
-            e.printStackTrace();
+        List<FileChange> changes = mined.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            files.add(applyChange(mined.getCommit(), changes.get(i), mined.getLocCounts().get(i)));
         }
         return files;
     }
 
     /**
-     * Checks if a file is really deleated with a certain commit
-     * @param shaId the commit id
-     * @param filepath the complete filepath
-     * @return a boolean
+     * Counts the lines of the files changed by a commit. Counts are looked up by blob id in the
+     * blob cache first; the missing ones are read with a single pipelined request
+     * @param commit the commit
+     * @param changes the changes made by the commit
+     * @return the line counts of the files after the commit (empty if the file was deleted)
      */
-    private boolean checkGitIfDeleted(String shaId, String filepath) {
-        String [] args = {"git", "show", "--name-status", "--diff-filter=D", shaId};
+    private List<LocCount> readLocCounts(Commit commit, List<FileChange> changes) {
+        List<String> blobIds = new ArrayList<>(changes.size());
+        for (FileChange change : changes) {
+            if (change.isDeleted()) continue;
+            /* address the content by blob id when the history reported it ("commit:path" names a blob as well) */
+            blobIds.add(change.getBlobId() != null ? change.getBlobId() : commit.getFullShaId() + ":" + change.getPath());
+        }
+
+        List<LocCount> locCounts = new ArrayList<>(changes.size());
         try {
-            BufferedReader commandOutput = getCommandOutput(args);
-            List<String> strings = commandOutput.lines().filter(s -> s.contains(filepath)).toList();
-            return !strings.isEmpty();
-        } catch (CommandException e) {
-            e.printStackTrace();
+            Iterator<LocCount> read = getBlobCache().getAll(blobIds, this::loadLocCounts).iterator();
+            for (FileChange change : changes) {
+                locCounts.add(change.isDeleted() ? LocCount.EMPTY : read.next());
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot read the files of commit " + commit.getFullShaId(), e);
         }
-        return false;
+        return locCounts;
+    }
+
+    /**
+     * Counts the lines of some file contents, looking them up in the blob cache first
+     * @param blobIds the blob ids of the contents
+     * @return the line counts, one for each blob (empty for missing blobs)
+     * @throws IOException error reading the repository
+     */
+    public List<LocCount> readLocCounts(List<String> blobIds) throws IOException {
+        return getBlobCache().getAll(blobIds, this::loadLocCounts);
+    }
+
+    /**
+     * Counts the lines of file contents streamed from the repository
+     * @param revisions the blobs to read
+     * @return the line counts (empty for missing blobs)
+     * @throws IOException error reading the repository
+     */
+    private List<LocCount> loadLocCounts(List<String> revisions) throws IOException {
+        List<LocCount> locCounts = new ArrayList<>(revisions.size());
+        for (LocCount locCount : getBlobReader().countLines(revisions)) {
+            locCounts.add(locCount != null ? locCount : LocCount.EMPTY);
+        }
+        return locCounts;
+    }
+
+    /**
+     * Applies a single change made by a commit to the project files
+     * @param commit the commit that made the change
+     * @param change the change
+     * @param locCount line counts of the file after the change
+     * @return the file touched
+     */
+    private JFile applyChange(Commit commit, FileChange change, LocCount locCount) {
+        int addition = change.getAdditions();
+        int deletion = change.getDeletions();
+        String filepath = change.getPath();
+        String filename = Parser.getInstance().parseFilenameFromFilepath(filepath);
+        if (change.isRenamed()) {
+            /* this branch implements the case in which the file is renamed by the commit:
+               this case is handled adding a new file, that takes the characteristics of the
+               old file.
+             */
+            String filepathOld = change.getOldPath();
+            String filenameOld = Parser.getInstance().parseFilenameFromFilepath(filepathOld);
+
+            /* OLD FILE
+                - search old file from existing files
+                - remove the commit release from the list of releases of the file
+            */
+            JFile oldFile = project.getFile(commit, filenameOld, filepathOld);
+
+            /* NEW FILE
+                - create new file inheriting old file stats
+                - add commit release to the list of the releases in file
+                - add the commit to the list of revisions
+                - update file stats (additions, deletions...)
+                - add file to list of files touched by the commit
+             */
+            JFile newFile = new JFile(commit.getVersion(), filename, filepath, oldFile);
+            newFile.addAndFillRelease(commit.getVersion());
+            newFile.addRevision(commit);
+            updateFileFeatures(newFile, commit, addition, deletion, locCount);
+            commit.addTouchedFile(newFile);
+
+            // set renaming of the file
+            oldFile.setRenamed(commit.getVersion(), newFile);
+            project.removeFile(commit.getVersion().getIndex(), oldFile);
+            return newFile;
+        }
+
+        if (change.isDeleted()) {
+            /* file is deleted by the commit */
+            JFile f = project.getFile(commit, filename, filepath);
+            // aggiungi il commit alla lista delle revisioni del file
+            f.addRevision(commit);
+            // aggiorna le caratteristiche del file
+            updateFileFeatures(f, commit, addition, deletion, locCount);
+            // aggiungi il nuovo file alla lista dei file committati
+            commit.addTouchedFile(f);
+            // set deletion release of file
+            f.setDeleted(commit.getVersion());
+            project.removeFile(commit.getVersion().getIndex(), f);
+            return f;
+        }
+
+        /* file is added or modified */
+        // cerca il file, altrimenti creane uno nuovo
+        JFile f = project.getFile(commit, filename, filepath);
+        // aggiungi il commit alla lista delle revisioni del file
+        f.addRevision(commit);
+        //aggiungi la release del commit al file
+        f.addAndFillRelease(commit.getVersion());
+        // aggiorna le caratteristiche del file
+        updateFileFeatures(f, commit, addition, deletion, locCount);
+        commit.addTouchedFile(f);
+        return f;
     }
 
     /**
@@ -240,54 +548,44 @@ public class GitHandler {
      * @param commit the commit that updated the file
      * @param addition number of LOC added with commit
      * @param deletion number of LOC deleted with commit
+     * @param locCount line counts of the file after the commit
      */
-    private void updateFileFeatures(JFile file, Commit commit, int addition, int deletion) {
+    private void updateFileFeatures(JFile file, Commit commit, int addition, int deletion, LocCount locCount) {
         int version = commit.getVersion().getIndex();
         int changes = addition + deletion;
-        try {
-            /* update file stats */
-            file.updateAdditions(version, addition);
-            file.updateDeletions(version, deletion);
-            file.updateChanges(version, changes);
-            file.updateContent(version, getFileContent(file.getRelPath(), commit));
-            file.updateAge(version);
-        } catch (IOException e) {
-            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
-            e.printStackTrace();
-        }
+        /* update file stats */
+        file.updateAdditions(version, addition);
+        file.updateDeletions(version, deletion);
+        file.updateChanges(version, changes);
+        file.updateLocCount(version, locCount);
+        file.updateAge(version);
     }
 
-    /***
-     * Get the content of a java file in a specific commit.
-     * @param filepath: the complete filepath of the file
-     * @param commit: the commit to consider
-     * @return String[] file content
+    /**
+     * Changes made by a commit, read from the repository but not yet applied to the project files
      */
-    public String[] getFileContent(String filepath, Commit commit) throws IOException {
-        String sha = commit.getShaId();
+    public static class MinedCommit {
 
-        String [] args = {"git", "show", sha+":"+filepath};
-        File dir = new File(project.getProjDir());
-        Process inputProcess = runGitCommand(args, dir);
-        BufferedReader input = new BufferedReader(new InputStreamReader(inputProcess.getInputStream()));
+        private final Commit commit;
+        private final List<FileChange> changes;
+        private final List<LocCount> locCounts; // line counts of the files after the commit, one for each change
 
-        List<String> temp = new ArrayList<>();
-        String line;
-        try {
-            while ((line = input.readLine()) != null && !line.contains("diff --git a/")) {
-                temp.add(line);
-            }
-        } catch (IOException e) {
-            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
-            e.printStackTrace();
+        public MinedCommit(Commit commit, List<FileChange> changes, List<LocCount> locCounts) {
+            this.commit = commit;
+            this.changes = changes;
+            this.locCounts = locCounts;
+        }
+
+        public Commit getCommit() {
+            return commit;
+        }
+
+        public List<FileChange> getChanges() {
+            return changes;
         }
 
-        // put elements in simple array
-        String[] content = new String[temp.size()];
-        for (int i=0; i<temp.size();i++) {
-            content[i] = temp.get(i);
+        public List<LocCount> getLocCounts() {
+            return locCounts;
         }
-        inputProcess.destroyForcibly();
-        return content;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.model.exceptions.CommandException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A git process started by the {@link GitProcessExecutor}. The standard error is drained in background
+ * (keeping its tail for error messages) and the bytes read from the standard output are counted.
+ */
+public class GitProcess {
+
+    private static final int STDERR_TAIL = 2048;
+
+    private final GitProcessExecutor executor;
+    private final String name; // git subcommand, used as key of the metrics
+    private final String command;
+    private final Process process;
+    private final CountingInputStream output;
+    private final StringBuilder errors;
+    private final Thread errorDrainer;
+    private final boolean bounded; // holds one of the slots of the executor
+    private final long startNanos;
+    private ScheduledFuture<?> deadline;
+    private volatile boolean timedOut;
+    private boolean closed;
+
+    GitProcess(GitProcessExecutor executor, String name, String command, Process process, boolean bounded) {
+        this.executor = executor;
+        this.name = name;
+        this.command = command;
+        this.process = process;
+        this.bounded = bounded;
+        this.startNanos = System.nanoTime();
+        this.output = new CountingInputStream(process.getInputStream());
+        this.errors = new StringBuilder();
+        this.errorDrainer = new Thread(this::drainErrors, "git-stderr-" + name);
+        this.errorDrainer.setDaemon(true);
+        this.errorDrainer.start();
+    }
+
+    void setDeadline(ScheduledFuture<?> deadline) {
+        this.deadline = deadline;
+    }
+
+    public InputStream getInputStream() {
+        return output;
+    }
+
+    public OutputStream getOutputStream() {
+        return process.getOutputStream();
+    }
+
+    /**
+     * Kills the process because it exceeded its deadline
+     */
+    void kill() {
+        timedOut = true;
+        process.destroyForcibly();
+    }
+
+    /**
+     * Waits for the process to exit and checks how it ended. A process whose output was not read
+     * until the end is killed instead, without checks (the caller is no longer interested in it)
+     * @throws CommandException the process failed or timed out
+     */
+    public void finish() throws CommandException {
+        if (!output.atEnd) {
+            close();
+            return;
+        }
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+            errorDrainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CommandException("Interrupted waiting for: " + command, e);
+        }
+        boolean failed = timedOut || exitCode != 0;
+        close(failed);
+        if (timedOut) {
+            throw new CommandException("Timed out after " + executor.getTimeoutSeconds() + "s: " + command);
+        }
+        if (exitCode != 0) {
+            throw new CommandException("Exit code " + exitCode + " from: " + command + "\n" + getErrors());
+        }
+    }
+
+    /**
+     * Terminates the process, if still running, and releases its resources
+     */
+    public void close() {
+        close(false);
+    }
+
+    private synchronized void close(boolean failed) {
+        if (closed) return;
+        closed = true;
+        if (deadline != null) deadline.cancel(false);
+        try {
+            process.getOutputStream().close();
+            output.close();
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.FINE, e.getMessage());
+        }
+        process.destroy();
+        executor.completed(name, System.nanoTime() - startNanos, output.count, failed, bounded);
+    }
+
+    /**
+     * @return the last part of the standard error of the process
+     */
+    public String getErrors() {
+        synchronized (errors) {
+            return errors.toString();
+        }
+    }
+
+    private void drainErrors() {
+        byte[] buffer = new byte[1024];
+        try (InputStream stderr = process.getErrorStream()) {
+            int read;
+            while ((read = stderr.read(buffer)) != -1) {
+                synchronized (errors) {
+                    errors.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                    if (errors.length() > STDERR_TAIL) errors.delete(0, errors.length() - STDERR_TAIL);
+                }
+            }
+        } catch (IOException e) {
+            /* the process was destroyed */
+            Logger.getGlobal().log(Level.FINE, e.getMessage());
+        }
+    }
+
+    /**
+     * Standard output of the process, counting the bytes read
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+        private volatile boolean atEnd;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) atEnd = true;
+            else count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read == -1) atEnd = true;
+            else count += read;
+            return read;
+        }
+    }
+}
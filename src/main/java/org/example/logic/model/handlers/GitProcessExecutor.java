@@ -0,0 +1,152 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.utils.Parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts and supervises all the git processes: at most a fixed number of commands run at the same time,
+ * commands running longer than the timeout are killed, and latency and output size are recorded
+ * for each git subcommand.
+ */
+public class GitProcessExecutor {
+
+    private static GitProcessExecutor instance;
+
+    private final int maxProcesses;
+    private final long timeoutSeconds;
+    private final Semaphore slots;
+    private final ScheduledExecutorService watchdog;
+    private final Map<String, CommandStats> stats;
+
+    private GitProcessExecutor(int maxProcesses, long timeoutSeconds) {
+        this.maxProcesses = Math.max(1, maxProcesses);
+        this.timeoutSeconds = timeoutSeconds;
+        this.slots = new Semaphore(this.maxProcesses, true);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("git-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.watchdog = scheduler;
+        this.stats = new TreeMap<>();
+    }
+
+    public static synchronized GitProcessExecutor getInstance() {
+        if (instance == null) {
+            instance = new GitProcessExecutor(InspectionController.getGitMaxProcesses(),
+                    InspectionController.getGitTimeoutSeconds());
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a git command, waiting for a free slot if the maximum number of commands is already running.
+     * The process is killed if it does not end before the timeout
+     * @param cmdArgs command arguments array
+     * @param workDir git working directory
+     * @return the running process
+     * @throws IOException the process cannot be started
+     */
+    public GitProcess start(String[] cmdArgs, File workDir) throws IOException {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting to run: " + String.join(" ", cmdArgs), e);
+        }
+        GitProcess process;
+        try {
+            process = launch(cmdArgs, workDir, true);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        if (timeoutSeconds > 0) {
+            process.setDeadline(watchdog.schedule(process::kill, timeoutSeconds, TimeUnit.SECONDS));
+        }
+        return process;
+    }
+
+    /**
+     * Runs a long-lived git command (e.g. "git cat-file --batch"), that is idle most of the time: it takes no
+     * slot and has no timeout, the number of these processes is bounded by their owner (e.g. a process pool)
+     * @param cmdArgs command arguments array
+     * @param workDir git working directory
+     * @return the running process
+     * @throws IOException the process cannot be started
+     */
+    public GitProcess startPersistent(String[] cmdArgs, File workDir) throws IOException {
+        return launch(cmdArgs, workDir, false);
+    }
+
+    private GitProcess launch(String[] cmdArgs, File workDir, boolean bounded) throws IOException {
+        ProcessBuilder build = new ProcessBuilder(cmdArgs);
+        String command = Parser.getInstance().listToString(build.command());
+        build.directory(workDir);
+        String name = cmdArgs.length > 1 ? cmdArgs[1] : cmdArgs[0];
+        try {
+            return new GitProcess(this, name, command, build.start(), bounded);
+        } catch (IOException e) {
+            throw new IOException("Something occurred while running shell command:" + command, e);
+        }
+    }
+
+    /**
+     * Records the end of a process, releasing its slot
+     */
+    void completed(String name, long nanos, long bytes, boolean failed, boolean bounded) {
+        if (bounded) slots.release();
+        synchronized (stats) {
+            stats.computeIfAbsent(name, k -> new CommandStats()).add(nanos, bytes, failed);
+        }
+    }
+
+    public long getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public int getMaxProcesses() {
+        return maxProcesses;
+    }
+
+    /**
+     * @return a line for each git subcommand run, with number of runs, failures, total time and bytes read
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        synchronized (stats) {
+            stats.forEach((name, stat) -> report.append(String.format("git %s: %d runs, %d failed, %d ms, %d KB read%n",
+                    name, stat.runs, stat.failures, TimeUnit.NANOSECONDS.toMillis(stat.nanos), stat.bytes / 1024)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Metrics of a git subcommand
+     */
+    private static class CommandStats {
+        private long runs;
+        private long failures;
+        private long nanos;
+        private long bytes;
+
+        void add(long nanos, long bytes, boolean failed) {
+            this.runs++;
+            this.nanos += nanos;
+            this.bytes += bytes;
+            if (failed) this.failures++;
+        }
+    }
+}
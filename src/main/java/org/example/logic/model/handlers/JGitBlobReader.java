@@ -0,0 +1,74 @@
+package org.example.logic.model.handlers;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.ObjectStream;
+import org.eclipse.jgit.lib.Repository;
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.features.LocCounter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blob reader that reads the objects in process through a JGit ObjectReader
+ */
+public class JGitBlobReader implements BlobReader {
+
+    private final Repository repository;
+
+    /**
+     * @param repository the repository to read, closed together with the reader
+     */
+    public JGitBlobReader(Repository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public byte[] readBlob(String revision) throws IOException {
+        /* ObjectReader instances are not thread safe: use one for each request */
+        try (ObjectReader reader = repository.newObjectReader()) {
+            ObjectId id = repository.resolve(revision);
+            if (id == null) return null;
+            return reader.open(id, Constants.OBJ_BLOB).getCachedBytes(Integer.MAX_VALUE);
+        } catch (MissingObjectException | IncorrectObjectTypeException | RevisionSyntaxException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<LocCount> countLines(List<String> revisions) throws IOException {
+        List<LocCount> counts = new ArrayList<>(revisions.size());
+        try (ObjectReader reader = repository.newObjectReader()) {
+            for (String revision : revisions) {
+                counts.add(countLines(reader, revision));
+            }
+        }
+        return counts;
+    }
+
+    private LocCount countLines(ObjectReader reader, String revision) throws IOException {
+        try {
+            ObjectId id = repository.resolve(revision);
+            if (id == null) return null;
+            ObjectLoader loader = reader.open(id, Constants.OBJ_BLOB);
+            /* large blobs are inflated while they are counted, without being loaded in memory */
+            try (ObjectStream stream = loader.openStream()) {
+                return LocCounter.count(stream);
+            }
+        } catch (MissingObjectException | IncorrectObjectTypeException | RevisionSyntaxException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        repository.close();
+    }
+}
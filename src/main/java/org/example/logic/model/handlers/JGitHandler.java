@@ -0,0 +1,318 @@
+package org.example.logic.model.handlers;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.exceptions.MiningException;
+import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.FileChange;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.keyabstractions.Release;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class that interacts with Git in process, through JGit (no git executable required)
+ */
+public class JGitHandler implements CommitSource {
+
+    /* prefixes of the pretty format used by GitHandler: commits keep the same message and author shape */
+    public static final String MESSAGE_PREFIX = "MES=";
+    public static final String AUTHOR_PREFIX = "AUTHOR=";
+    private static final int ABBREV_LENGTH = 7;
+
+    private final Project project;
+
+    public JGitHandler(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Opens the repository of the project
+     * @return a Repository instance, to be closed by the caller
+     * @throws IOException the project directory is not a git repository
+     */
+    public Repository openRepository() throws IOException {
+        return new FileRepositoryBuilder()
+                .findGitDir(new File(project.getProjDir()))
+                .setMustExist(true)
+                .build();
+    }
+
+    /**
+     * Walks the history reachable from HEAD with a RevWalk, in the same order of
+     * "git log --date-order --reverse", and builds the commits directly, together with their changes
+     * (renames are detected comparing the objects, as git does)
+     * @param since full sha of a previous commit: only the commits not reachable from it are retrieved
+     *              (null to retrieve all the commits)
+     * @return the list of the commits retrieved
+     */
+    @Override
+    public List<Commit> lookupForCommits(String since) {
+        List<Commit> cs = new ArrayList<>();
+        try (Repository repository = openRepository();
+             ObjectReader reader = repository.newObjectReader();
+             RevWalk walk = new RevWalk(reader);
+             DiffFormatter diff = newDiffFormatter(repository)) {
+            if (!startWalk(repository, walk)) return cs;
+            if (since != null) walk.markUninteresting(walk.parseCommit(ObjectId.fromString(since)));
+
+            for (RevCommit rev : walk) {
+                String sha = reader.abbreviate(rev, ABBREV_LENGTH).name();
+                PersonIdent author = rev.getAuthorIdent();
+
+                /* create a new commit instance with the parameters retrieved */
+                Commit commit = new Commit(project, sha, MESSAGE_PREFIX + rev.getShortMessage(),
+                        authorDate(author), AUTHOR_PREFIX + author.getName());
+                commit.setFullShaId(rev.name());
+                /* assign a version to the new commit */
+                Release commitRelease = project.getTimeline().findVersionByDate(commit.getDate());
+                commit.setVersion(commitRelease);
+                readChanges(walk, diff, rev).forEach(commit::addChange);
+                cs.add(commit);
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot read the history of " + project.getProjName(), e);
+        }
+
+        /* Order commits retrieved by date */
+        cs.sort(Comparator.comparing(Commit::getDate));
+        return cs;
+    }
+
+    /**
+     * Lists the commits of the project with a RevWalk, without reading their changes
+     * @return the full sha of the commits, in history order
+     */
+    @Override
+    public List<String> lookupForCommitIds() {
+        List<String> ids = new ArrayList<>();
+        try (Repository repository = openRepository();
+             RevWalk walk = new RevWalk(repository)) {
+            if (!startWalk(repository, walk)) return ids;
+            for (RevCommit rev : walk) {
+                ids.add(rev.name());
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot list the commits of " + project.getProjName(), e);
+        }
+        return ids;
+    }
+
+    /**
+     * Lists the tags of the repository
+     * @return the full sha of the commit pointed by each tag (annotated tags are peeled), by tag name
+     */
+    public Map<String, String> lookupForTags() {
+        Map<String, String> tags = new TreeMap<>();
+        try (Repository repository = openRepository();
+             RevWalk walk = new RevWalk(repository)) {
+            for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS)) {
+                RevCommit commit = walk.parseCommit(ref.getObjectId());
+                tags.put(ref.getName().substring(Constants.R_TAGS.length()), commit.name());
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot list the tags of " + project.getProjName(), e);
+        }
+        return tags;
+    }
+
+    /**
+     * Lists the java files present in the trees of some commits, walking each tree once
+     * @param revisions full sha of the commits (null for an empty snapshot)
+     * @return for each commit, the blob id of each java file, by filepath
+     */
+    public List<Map<String, String>> lookupForSnapshots(List<String> revisions) {
+        List<Map<String, String>> snapshots = new ArrayList<>(revisions.size());
+        try (Repository repository = openRepository();
+             RevWalk walk = new RevWalk(repository);
+             TreeWalk tree = new TreeWalk(repository)) {
+            tree.setRecursive(true);
+            for (String revision : revisions) {
+                Map<String, String> files = new HashMap<>();
+                if (revision != null) {
+                    tree.reset(walk.parseCommit(ObjectId.fromString(revision)).getTree());
+                    while (tree.next()) {
+                        /* same selection of the changes read from the history (see FileChange.isJavaFile) */
+                        String path = tree.getPathString();
+                        if (path.contains(".java")) files.put(path, tree.getObjectId(0).name());
+                    }
+                }
+                snapshots.add(files);
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot read the release trees of " + project.getProjName(), e);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Compares the tree of each commit with the tree of the previous one (renames are detected as in the
+     * history): the changes made between two release boundaries are read with a single diff
+     * @param revisions full sha of the commits, in order (null for an empty tree)
+     * @return for each commit, the changes made on java files since the previous commit
+     */
+    public List<List<FileChange>> lookupForTreeChanges(List<String> revisions) {
+        List<List<FileChange>> treeChanges = new ArrayList<>(revisions.size());
+        try (Repository repository = openRepository();
+             RevWalk walk = new RevWalk(repository);
+             DiffFormatter diff = newDiffFormatter(repository)) {
+            RevTree prevTree = null;
+            for (String revision : revisions) {
+                RevTree tree = revision != null ? walk.parseCommit(ObjectId.fromString(revision)).getTree() : null;
+                List<FileChange> changes = new ArrayList<>();
+                for (DiffEntry entry : diff.scan(prevTree, tree)) {
+                    if (isJavaEntry(entry)) changes.add(toFileChange(diff, entry));
+                }
+                treeChanges.add(changes);
+                prevTree = tree;
+            }
+        } catch (IOException e) {
+            throw new MiningException("Cannot compare the release trees of " + project.getProjName(), e);
+        }
+        return treeChanges;
+    }
+
+    /**
+     * Starts a walk from HEAD, sorted as "git log --date-order --reverse"
+     * @param repository the repository
+     * @param walk the walk to start
+     * @return false if the repository has no commits
+     * @throws IOException error reading the repository
+     */
+    private boolean startWalk(Repository repository, RevWalk walk) throws IOException {
+        ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) return false;
+
+        /* commits of the history mode in the config file */
+        switch (InspectionController.getHistoryMode().toLowerCase()) {
+            case "first_parent" -> walk.setFirstParent(true);
+            case "no_merges" -> walk.setRevFilter(RevFilter.NO_MERGES);
+            default -> { /* full history */ }
+        }
+        walk.markStart(walk.parseCommit(head));
+        walk.sort(RevSort.TOPO);
+        walk.sort(RevSort.COMMIT_TIME_DESC, true);
+        walk.sort(RevSort.REVERSE, true);
+        return true;
+    }
+
+    /**
+     * Creates the formatter used to compare the trees of the commits, with the rename detection
+     * configured as the git executable (similarity threshold and limit from the config file)
+     * @param repository the repository
+     * @return the diff formatter
+     */
+    private DiffFormatter newDiffFormatter(Repository repository) {
+        DiffFormatter diff = new DiffFormatter(DisabledOutputStream.INSTANCE);
+        diff.setRepository(repository);
+        /* same algorithm of git, so that line counts match "--numstat" */
+        diff.setDiffAlgorithm(DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.MYERS));
+        diff.setDetectRenames(true);
+        RenameDetector renames = diff.getRenameDetector();
+        renames.setRenameScore(InspectionController.getRenameScore());
+        renames.setRenameLimit(InspectionController.getRenameLimit());
+        return diff;
+    }
+
+    /**
+     * Reads the changes made by a commit on java files, comparing its tree with the one of its first parent.
+     * Merge commits are compared with their first parent too, as git does with "--diff-merges=first-parent"
+     * @param walk the walk that produced the commit
+     * @param diff the diff formatter
+     * @param rev the commit
+     * @return the changes of the commit
+     * @throws IOException error reading the repository
+     */
+    private List<FileChange> readChanges(RevWalk walk, DiffFormatter diff, RevCommit rev) throws IOException {
+        RevCommit parent = rev.getParentCount() > 0 ? walk.parseCommit(rev.getParent(0)) : null;
+        List<FileChange> changes = new ArrayList<>();
+        for (DiffEntry entry : diff.scan(parent != null ? parent.getTree() : null, rev.getTree())) {
+            if (isJavaEntry(entry)) changes.add(toFileChange(diff, entry));
+        }
+        return changes;
+    }
+
+    /* checked before the diff of the entry is computed: the contents of the other files are never read */
+    private static boolean isJavaEntry(DiffEntry entry) {
+        return FileChange.isJavaFile(entry.getOldPath(), entry.getNewPath());
+    }
+
+    /**
+     * Converts a diff entry in a file change, counting the lines added and deleted
+     * @param diff the diff formatter
+     * @param entry the diff entry
+     * @return the file change
+     * @throws IOException error reading the repository
+     */
+    private FileChange toFileChange(DiffFormatter diff, DiffEntry entry) throws IOException {
+        String oldPath = entry.getOldPath();
+        String path = entry.getNewPath();
+        String oldBlobId = entry.getOldId().name();
+        String blobId = entry.getNewId().name();
+        FileChange.Type type;
+        switch (entry.getChangeType()) {
+            case ADD, COPY -> {
+                /* a copy adds a new file, the source is left untouched */
+                type = FileChange.Type.ADDED;
+                oldPath = path;
+                oldBlobId = null;
+            }
+            case DELETE -> {
+                type = FileChange.Type.DELETED;
+                path = oldPath;
+                blobId = null;
+            }
+            case RENAME -> type = FileChange.Type.RENAMED;
+            default -> type = FileChange.Type.MODIFIED;
+        }
+
+        int additions = 0;
+        int deletions = 0;
+        /* a file moved without changes has no edits: its content is not even read */
+        if (!entry.getOldId().equals(entry.getNewId())) {
+            for (Edit edit : diff.toFileHeader(entry).toEditList()) {
+                additions += edit.getLengthB();
+                deletions += edit.getLengthA();
+            }
+        }
+        return new FileChange(type, oldPath, path, oldBlobId, blobId, additions, deletions);
+    }
+
+    /**
+     * Gets the author date of a commit, in the author time zone (as "%as" does)
+     * @param author the author identity
+     * @return the date at start of day
+     */
+    private LocalDateTime authorDate(PersonIdent author) {
+        return author.getWhen().toInstant()
+                .atZone(author.getTimeZone().toZoneId())
+                .toLocalDate()
+                .atStartOfDay();
+    }
+}
@@ -1,29 +1,39 @@
 package org.example.logic.model.handlers;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.example.logic.control.InspectionController;
 import org.example.logic.model.keyabstractions.Issue;
 import org.example.logic.model.keyabstractions.Project;
 import org.example.logic.model.keyabstractions.Release;
 import org.example.logic.model.utils.Parser;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import org.example.logic.model.utils.TicketStore;
 
 /**
  * Class that interacts with Jira API
  */
 public class JIRAHandler {
 
+    private static final String FIELDS = "key,resolutiondate,versions,fixVersions,created";
+    private static final String SYNC_FIELDS = FIELDS + ",issuetype,status,resolution";
+
     private final Project project;
 
     public JIRAHandler(Project project) {
@@ -32,95 +42,263 @@ public class JIRAHandler {
 
 
     /**
-     * retrieves project issue selecting a type
+     * retrieves project issue selecting a type. With a ticket store, the fixed tickets are downloaded once
+     * and later runs request only the tickets updated since the last sync, merging them into the store
      * @param type the issue type
      * @return the issues list
      * @throws IOException error retrieving issues
      */
     public List<Issue> retrieveProjectIssues(String type) throws IOException {
-        int i = 0;
-        int j;
-        int total;
+        String storeDir = InspectionController.getJiraTicketStoreDir();
+        List<JiraSearchDecoder.Ticket> tickets;
+        if (storeDir.isEmpty()) {
+            tickets = search(fixedIssuesJql(type), FIELDS);
+        } else {
+            tickets = syncTickets(type, new TicketStore(Path.of(storeDir, project.getProjName() + "-" + type + ".tickets")));
+        }
 
-        List<Issue> tickets = new ArrayList<>();
+        List<Issue> issues = new ArrayList<>();
+        for (JiraSearchDecoder.Ticket ticket : tickets) {
+            if (ticket.getResolutionDate() != null) issues.add(toIssue(ticket));
+        }
+        return issues;
+    }
 
-        do {
-            //Only gets a max of 1000 at a time, so must do this multiple times if >1000
-            j = i + 1000;
+    /**
+     * Brings the ticket store up to date: a full download when the store is empty, otherwise the tickets
+     * updated since the last sync. Offline, the store is used as it is
+     * @param type the issue type
+     * @param store the ticket store of the project
+     * @return the fixed tickets
+     * @throws IOException error retrieving the tickets
+     */
+    private List<JiraSearchDecoder.Ticket> syncTickets(String type, TicketStore store) throws IOException {
+        store.load();
+        Instant start = Instant.now();
+        if (store.getWatermark() == null) {
+            store.replace(search(fixedIssuesJql(type), FIELDS));
+        } else if (!InspectionController.isJiraOffline()) {
+            /* JIRA reads the date in the time zone of the user: the watermark is moved back by a day,
+               tickets requested again are replaced by themselves */
+            List<JiraSearchDecoder.Ticket> updated = search(updatedIssuesJql(store.getWatermark().minus(1, ChronoUnit.DAYS)), SYNC_FIELDS);
+            int merged = store.merge(updated, type);
+            if (InspectionController.isFullDebug()) {
+                String log = project.getProjName() + ": " + updated.size() + " tickets updated, " + merged + " fixed";
+                Logger.getGlobal().log(Level.WARNING, log);
+            }
+        } else {
+            return store.getTickets();
+        }
+        try {
+            store.save(start);
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+        return store.getTickets();
+    }
 
-            String url = "https://issues.apache.org/jira/rest/api/2/search?jql=project=%22"
-                    + this.project.getProjName() + "%22AND%22issueType%22=%22"+type+"%22AND(%22status%22=%22closed%22OR"
-                    + "%22status%22=%22resolved%22)AND%22resolution%22=%22fixed%22&fields=key,resolutiondate,versions,fixVersions,created&startAt="
-                    + i + "&maxResults=" + j;
-            JSONObject json = readJsonFromUrl(url);
+    /**
+     * Searches the tickets selected by a query. The first page of the search gives the number of tickets,
+     * the remaining pages are requested concurrently (at most jira_max_requests at a time) and
+     * reassembled in order. Pages are decoded while they are read, keeping only the fields of the tickets
+     * @param jql the query, URL encoded
+     * @param fields the fields of the tickets to request
+     * @return the tickets, in the order of the search
+     * @throws IOException error retrieving the tickets
+     */
+    private List<JiraSearchDecoder.Ticket> search(String jql, String fields) throws IOException {
+        int pageSize = InspectionController.getJiraPageSize();
+        JiraSearchDecoder.Page first = readPage(searchUrl(jql, fields, 0, pageSize));
+        int total = first.getTotal();
+        List<JiraSearchDecoder.Page> pages = new ArrayList<>();
+        pages.add(first);
 
-            JSONArray issues = json.getJSONArray("issues");
-            total = json.getInt("total");
+        /* the server may return less issues than requested: the windows follow the size of the first page */
+        int window = first.getTickets().size();
+        if (window > 0 && window < total) pages.addAll(readPages(jql, fields, window, total));
 
-            for (; i < total && i < j; i++) {
+        Map<String, JiraSearchDecoder.Ticket> tickets = new LinkedHashMap<>();
+        for (JiraSearchDecoder.Page page : pages) {
+            addByKey(tickets, page.getTickets());
+        }
+        if (tickets.size() == total) return new ArrayList<>(tickets.values());
+
+        /* issues added or removed while paging shift the windows: a ticket at the boundary of two pages is
+           read twice, or skipped. The search is read again, one page after another */
+        if (InspectionController.isFullDebug()) {
+            String log = project.getProjName() + ": " + tickets.size() + " tickets read of " + total + ", searching again";
+            Logger.getGlobal().log(Level.WARNING, log);
+        }
+        return searchSequentially(jql, fields, pageSize);
+    }
 
-                JSONObject fields = issues.getJSONObject(i%1000).getJSONObject("fields");
+    /**
+     * Searches the tickets selected by a query one page after another, each page starting after the
+     * tickets already read
+     * @param jql the query, URL encoded
+     * @param fields the fields of the tickets to request
+     * @param pageSize number of issues requested for each page
+     * @return the tickets, in the order of the search
+     * @throws IOException error retrieving the tickets
+     */
+    private List<JiraSearchDecoder.Ticket> searchSequentially(String jql, String fields, int pageSize) throws IOException {
+        Map<String, JiraSearchDecoder.Ticket> tickets = new LinkedHashMap<>();
+        int startAt = 0;
+        int total;
+        do {
+            JiraSearchDecoder.Page page = readPage(searchUrl(jql, fields, startAt, pageSize));
+            total = page.getTotal();
+            if (page.getTickets().isEmpty()) break;
+            addByKey(tickets, page.getTickets());
+            startAt += page.getTickets().size();
+        } while (startAt < total);
 
-                /* get issue basic information */
-                String key = issues.getJSONObject(i%1000).get("key").toString();
-                String id = issues.getJSONObject(i%1000).getString("id");
-                String opening = fields.getString("created").substring(0,10);
-                String resolution = fields.getString("resolutiondate").substring(0,10);
+        if (tickets.size() != total) {
+            /* e.g. pages served by the response cache, recorded at different times */
+            String log = project.getProjName() + ": " + tickets.size() + " tickets read, the search reports " + total;
+            Logger.getGlobal().log(Level.WARNING, log);
+        }
+        return new ArrayList<>(tickets.values());
+    }
 
-                Issue issue = new Issue(project, key, id, Parser.getInstance().parseDateToLocalDateTime(resolution), Parser.getInstance().parseDateToLocalDateTime(opening));
+    /* a ticket read twice is kept once, at its first position */
+    private static void addByKey(Map<String, JiraSearchDecoder.Ticket> tickets, List<JiraSearchDecoder.Ticket> page) {
+        for (JiraSearchDecoder.Ticket ticket : page) {
+            tickets.putIfAbsent(ticket.getKey(), ticket);
+        }
+    }
 
-                /* retrieve the affected versions of the issue */
-                issue.setAffectedVersions(findVersions(fields, "versions"));
-                /* retrieve the fixed versions of the issue */
-                issue.setFixedVersions(findVersions(fields, "fixVersions"));
-                /* set the opening version */
-                issue.setOpVersion(Release.findVersionByDate(project.getVersions(), Parser.getInstance().parseDateToLocalDateTime(opening)));
-                tickets.add(issue);
+    /**
+     * Requests the pages of the search after the first one, with bounded concurrency
+     * @param jql the query, URL encoded
+     * @param fields the fields of the tickets to request
+     * @param window number of issues of each page
+     * @param total number of issues of the search
+     * @return the pages, in order
+     * @throws IOException error retrieving a page
+     */
+    private List<JiraSearchDecoder.Page> readPages(String jql, String fields, int window, int total) throws IOException {
+        List<Integer> starts = new ArrayList<>();
+        for (int startAt = window; startAt < total; startAt += window) {
+            starts.add(startAt);
+        }
+        int requests = Math.max(1, Math.min(InspectionController.getJiraMaxRequests(), starts.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<JiraSearchDecoder.Page>> futures = new ArrayList<>(starts.size());
+            for (int startAt : starts) {
+                futures.add(executor.submit(() -> readPage(searchUrl(jql, fields, startAt, window))));
+            }
+            List<JiraSearchDecoder.Page> pages = new ArrayList<>(futures.size());
+            for (Future<JiraSearchDecoder.Page> future : futures) {
+                pages.add(awaitPage(future));
             }
+            return pages;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JiraSearchDecoder.Page awaitPage(Future<JiraSearchDecoder.Page> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted retrieving issues", e);
+        } catch (ExecutionException e) {
+            /* unchecked errors (e.g. a missing response in offline mode) are not wrapped */
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Builds the query of the fixed issues of a type
+     * @param type the issue type
+     * @return the query, URL encoded
+     */
+    private String fixedIssuesJql(String type) {
+        return "project=%22" + this.project.getProjName() + "%22AND%22issueType%22=%22"+type+"%22AND(%22status%22=%22closed%22OR"
+                + "%22status%22=%22resolved%22)AND%22resolution%22=%22fixed%22";
+    }
+
+    /**
+     * Builds the query of the issues of the project updated since a time: all types, statuses and
+     * resolutions, to remove from the store the issues no longer fixed
+     * @param since the time, in UTC
+     * @return the query, URL encoded
+     */
+    private String updatedIssuesJql(Instant since) {
+        String date = DateTimeFormatter.ofPattern("yyyy/MM/dd'%20'HH:mm").withZone(ZoneOffset.UTC).format(since);
+        return "project=%22" + this.project.getProjName() + "%22AND%22updated%22%3E=%22" + date + "%22";
+    }
+
+    /**
+     * Builds the URL of a page of a search
+     * @param jql the query, URL encoded
+     * @param fields the fields of the tickets to request
+     * @param startAt index of the first issue of the page
+     * @param maxResults number of issues of the page
+     * @return the URL
+     */
+    private String searchUrl(String jql, String fields, int startAt, int maxResults) {
+        return InspectionController.getJiraBaseUrl() + "/rest/api/2/search?jql=" + jql + "&fields=" + fields
+                + "&startAt=" + startAt + "&maxResults=" + maxResults;
+    }
+
+    /**
+     * Creates an issue from a ticket read from a search
+     * @param ticket the ticket
+     * @return the issue
+     */
+    private Issue toIssue(JiraSearchDecoder.Ticket ticket) {
+        /* get issue basic information */
+        String opening = ticket.getCreated().substring(0,10);
+        String resolution = ticket.getResolutionDate().substring(0,10);
 
-        } while (i < total);
+        Issue issue = new Issue(project, ticket.getKey(), ticket.getId(), Parser.getInstance().parseDateToLocalDateTime(resolution), Parser.getInstance().parseDateToLocalDateTime(opening));
 
-        return tickets;
+        /* retrieve the affected versions of the issue */
+        issue.setAffectedVersions(findVersions(ticket.getAffectedVersions()));
+        /* retrieve the fixed versions of the issue */
+        issue.setFixedVersions(findVersions(ticket.getFixVersions()));
+        /* set the opening version */
+        issue.setOpVersion(project.getTimeline().findVersionByDate(Parser.getInstance().parseDateToLocalDateTime(opening)));
+        return issue;
     }
 
     /**
-     * find different types of versions of an issue from Jira
-     * @param fields JSON Object field of the issue
-     * @param fieldType type of the field to retrieve from Jira
+     * find the project releases of the versions of an issue from Jira. A version is considered when it is
+     * released with a release date, or when it is a project release: a stored ticket may have a version
+     * released after the ticket was downloaded
+     * @param versions the versions of the issue
      * @return the releases list
      */
-    private List<Release> findVersions(JSONObject fields, String fieldType) {
-        String date;
+    private List<Release> findVersions(List<JiraSearchDecoder.Version> versions) {
         List<Release> ver = new ArrayList<>();
-        JSONArray versions = fields.getJSONArray(fieldType);
-
-        for (int i=0; i<versions.length(); i++) {
-            JSONObject version = versions.getJSONObject(i);
-            /* consider the version only if has a release date and it's released */
-            if (version.getBoolean("released") && version.has("releaseDate")) {
-                date = version.getString("releaseDate");
-                Release r = Release.findVersionByDate(project.getVersions(), Parser.getInstance().parseDateToLocalDateTime(date));
-                ver.add(r);
+        for (JiraSearchDecoder.Version version : versions) {
+            Release release = project.getTimeline().findVersionById(version.getId());
+            if (release == null && version.isReleased() && version.getReleaseDate() != null) {
+                /* not a project release (e.g. archived): the project release of its date */
+                release = project.getTimeline().findVersionByDate(Parser.getInstance().parseDateToLocalDateTime(version.getReleaseDate()));
             }
+            if (release != null) ver.add(release);
         }
         ver.sort(Comparator.comparing(Release::getDate)); // sort releases by date
         return ver;
     }
 
-    private JSONObject readJsonFromUrl(String url) throws IOException, JSONException {
-        try (InputStream is = new URL(url).openStream();
-             BufferedReader rd = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String jsonText = readAll(rd);
-            return new JSONObject(jsonText);
-        }
-    }
-
-    private	String readAll(Reader rd) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        int cp;
-        while ((cp = rd.read()) != -1) {
-            sb.append((char) cp);
+    /**
+     * Reads a page of a search, decoding it while the response is read
+     * @param url the URL of the page
+     * @return the page
+     * @throws IOException error retrieving the page
+     */
+    private JiraSearchDecoder.Page readPage(String url) throws IOException {
+        /* requests go through the JIRA response cache */
+        try (Reader reader = Parser.getInstance().openUrl(url)) {
+            return JiraSearchDecoder.decode(reader);
         }
-        return sb.toString();
     }
-}
\ No newline at end of file
+}
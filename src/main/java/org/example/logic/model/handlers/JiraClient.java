@@ -0,0 +1,272 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.control.InspectionController;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Client of the JIRA REST API shared by all the requests: connections are pooled and reused by a single
+ * HttpClient, responses are requested compressed, at most a fixed number of requests are in flight for each
+ * host, and requests answered with 429 or 5xx (or timed out) are retried with jittered
+ * exponential backoff. A request holds the slot of its host until its body is received (or it fails), so a
+ * caller that never reads the body cannot keep the slot. Latency, retries and failures are recorded.
+ */
+public class JiraClient {
+
+    private static JiraClient instance;
+
+    private final HttpClient client;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final int maxPerHost;
+    private final Map<String, HostSlots> hosts;
+    private final AtomicLong requests;
+    private final AtomicLong retries;
+    private final AtomicLong failures;
+    private final AtomicLong latencyNanos;
+    private final AtomicLong maxLatencyNanos;
+
+    /**
+     * @param maxPerHost max requests in flight for each host
+     * @param timeoutSeconds timeout of connection, response headers and response body (each), in seconds
+     * @param maxRetries max number of retries of a request
+     * @param backoffMillis delay before the first retry (doubled at each retry), in milliseconds
+     */
+    public JiraClient(int maxPerHost, long timeoutSeconds, int maxRetries, long backoffMillis) {
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.hosts = new ConcurrentHashMap<>();
+        this.requests = new AtomicLong();
+        this.retries = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.latencyNanos = new AtomicLong();
+        this.maxLatencyNanos = new AtomicLong();
+    }
+
+    public static synchronized JiraClient getInstance() {
+        if (instance == null) {
+            instance = new JiraClient(InspectionController.getJiraHostConnections(),
+                    InspectionController.getJiraTimeoutSeconds(), InspectionController.getJiraMaxRetries(),
+                    InspectionController.getJiraBackoffMillis());
+        }
+        return instance;
+    }
+
+    /**
+     * Sends a GET request and waits for the response
+     * @param url the request URL
+     * @return the response body (uncompressed), to be closed by the caller
+     * @throws IOException the request failed after the retries, or the response is not successful
+     */
+    public InputStream fetch(String url) throws IOException {
+        try {
+            return fetchAsync(url).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted requesting: " + url, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Sends a GET request asynchronously: the request waits for a free slot of its host, and is retried
+     * if the server is overloaded or failing
+     * @param url the request URL
+     * @return the response body (uncompressed)
+     */
+    public CompletableFuture<InputStream> fetchAsync(String url) {
+        CompletableFuture<InputStream> result = new CompletableFuture<>();
+        attempt(URI.create(url), 0, result);
+        return result;
+    }
+
+    private void attempt(URI uri, int attempt, CompletableFuture<InputStream> result) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        HostSlots slots = hosts.computeIfAbsent(host, h -> new HostSlots(maxPerHost));
+        slots.run(() -> send(uri, attempt, slots, result));
+    }
+
+    private void send(URI uri, int attempt, HostSlots slots, CompletableFuture<InputStream> result) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        requests.incrementAndGet();
+        AtomicReference<CompletableFuture<HttpResponse<byte[]>>> exchange = new AtomicReference<>();
+        HttpResponse.BodyHandler<byte[]> handler = info -> {
+            /* the request timeout ends with the headers: the body has its own */
+            CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> exchange.get().cancel(true));
+            return HttpResponse.BodySubscribers.ofByteArray();
+        };
+        exchange.set(client.sendAsync(request, handler));
+        exchange.get().whenComplete((response, error) -> {
+            try {
+                recordLatency(System.nanoTime() - start);
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause instanceof CancellationException) {
+                    cause = new HttpTimeoutException("Response body not received in time: " + uri);
+                }
+                if (cause == null && response.statusCode() / 100 == 2) {
+                    complete(response, result);
+                    return;
+                }
+
+                if (attempt < maxRetries && isRetryable(response, cause)) {
+                    retries.incrementAndGet();
+                    long delay = backoff(attempt, response);
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                            .execute(() -> attempt(uri, attempt + 1, result));
+                    return;
+                }
+                failures.incrementAndGet();
+                if (cause instanceof IOException) {
+                    result.completeExceptionally(cause);
+                } else if (cause != null) {
+                    result.completeExceptionally(new IOException("Error requesting: " + uri, cause));
+                } else {
+                    result.completeExceptionally(new IOException("HTTP " + response.statusCode() + " requesting: " + uri));
+                }
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    /* the body is uncompressed from memory: the connection is already free */
+    private static void complete(HttpResponse<byte[]> response, CompletableFuture<InputStream> result) {
+        InputStream body = new ByteArrayInputStream(response.body());
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip")).orElse(false);
+        try {
+            result.complete(gzip ? new GZIPInputStream(body) : body);
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /* overloaded server (429), server errors (5xx) and timeouts are transient, unreachable hosts are not */
+    private boolean isRetryable(HttpResponse<byte[]> response, Throwable cause) {
+        if (cause != null) return cause instanceof HttpTimeoutException;
+        int status = response.statusCode();
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * Computes the delay before a retry: exponential backoff with jitter (between half and all of the delay),
+     * but not shorter than the delay asked by the server with "Retry-After"
+     * @param attempt the number of the failed attempt (0 for the first request)
+     * @param response the response, null if the request failed
+     * @return the delay, in milliseconds
+     */
+    private long backoff(int attempt, HttpResponse<byte[]> response) {
+        long delay = backoffMillis << Math.min(attempt, 16);
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        if (response != null) {
+            String retryAfter = response.headers().firstValue("Retry-After").orElse("");
+            if (retryAfter.matches("\\d+")) {
+                jittered = Math.max(jittered, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+            }
+        }
+        return jittered;
+    }
+
+    private void recordLatency(long nanos) {
+        latencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return number of requests (retries included), retries, failures, average and max latency
+     */
+    public String report() {
+        long sent = requests.get();
+        long avgMillis = sent == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latencyNanos.get() / sent);
+        return String.format("JIRA: %d requests, %d retries, %d failed, %d ms avg, %d ms max",
+                sent, retries.get(), failures.get(), avgMillis, TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+    }
+
+    /**
+     * Requests in flight to a host: requests beyond the limit wait in order for a free slot
+     */
+    private static class HostSlots {
+
+        private int available;
+        private final Deque<Runnable> waiting;
+
+        HostSlots(int slots) {
+            this.available = slots;
+            this.waiting = new ArrayDeque<>();
+        }
+
+        void run(Runnable request) {
+            synchronized (this) {
+                if (available == 0) {
+                    waiting.add(request);
+                    return;
+                }
+                available--;
+            }
+            request.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            /* the slot passes to the next request waiting */
+            next.run();
+        }
+    }
+}
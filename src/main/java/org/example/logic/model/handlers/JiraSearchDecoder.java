@@ -0,0 +1,281 @@
+package org.example.logic.model.handlers;
+
+import org.example.logic.model.utils.JsonStreamReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a page of a JIRA search while it is read: only the fields of the issues used to build the tickets
+ * (key, id, created, resolutiondate, versions, fixVersions, and issuetype, status and resolution when
+ * requested) are kept, everything else is skipped
+ */
+public class JiraSearchDecoder {
+
+    private JiraSearchDecoder() {}
+
+    /**
+     * Decodes a page of a search
+     * @param input the response body
+     * @return the page
+     * @throws IOException error reading the response, or malformed response
+     */
+    public static Page decode(Reader input) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(input);
+        Page page = new Page();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("total")) {
+                page.total = Integer.parseInt(reader.nextString());
+            } else if (name.equals("issues") && reader.peekArray()) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    page.tickets.add(readTicket(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (page.total < 0) throw new IOException("Malformed search page: total missing");
+        return page;
+    }
+
+    private static Ticket readTicket(JsonStreamReader reader) throws IOException {
+        Ticket ticket = new Ticket();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "key" -> ticket.key = reader.nextString();
+                case "id" -> ticket.id = reader.nextString();
+                case "fields" -> readFields(reader, ticket);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (ticket.key == null || ticket.id == null || ticket.created == null) {
+            throw new IOException("Malformed search page: issue " + ticket.key + " without required fields");
+        }
+        return ticket;
+    }
+
+    private static void readFields(JsonStreamReader reader, Ticket ticket) throws IOException {
+        if (!reader.peekObject()) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "created" -> ticket.created = reader.nextString();
+                case "resolutiondate" -> ticket.resolutionDate = reader.nextString();
+                case "versions" -> readVersions(reader, ticket.affectedVersions);
+                case "fixVersions" -> readVersions(reader, ticket.fixVersions);
+                case "issuetype" -> ticket.type = readName(reader);
+                case "status" -> ticket.status = readName(reader);
+                case "resolution" -> ticket.resolution = readName(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads the name of an object (issue type, status, resolution)
+     * @param reader the reader, positioned on the object
+     * @return the name, null if the object is null or has no name
+     * @throws IOException error reading the response
+     */
+    private static String readName(JsonStreamReader reader) throws IOException {
+        if (!reader.peekObject()) {
+            reader.skipValue();
+            return null;
+        }
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("name")) {
+                value = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Reads a list of versions
+     * @param reader the reader, positioned on the list
+     * @param versions collects the versions
+     * @throws IOException error reading the response
+     */
+    private static void readVersions(JsonStreamReader reader, List<Version> versions) throws IOException {
+        if (!reader.peekArray()) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            boolean released = false;
+            String releaseDate = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "id" -> id = reader.nextString();
+                    case "released" -> released = Boolean.parseBoolean(reader.nextString());
+                    case "releaseDate" -> releaseDate = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            versions.add(new Version(id, releaseDate, released));
+        }
+        reader.endArray();
+    }
+
+    /**
+     * A page of a search
+     */
+    public static class Page {
+
+        private int total = -1;
+        private final List<Ticket> tickets = new ArrayList<>();
+
+        /**
+         * @return number of issues of the whole search
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Ticket> getTickets() {
+            return tickets;
+        }
+    }
+
+    /**
+     * The fields of an issue, as read from JIRA
+     */
+    public static class Ticket {
+
+        private String key;
+        private String id;
+        private String created;
+        private String resolutionDate;
+        private String type;
+        private String status;
+        private String resolution;
+        private final List<Version> affectedVersions;
+        private final List<Version> fixVersions;
+
+        private Ticket() {
+            this.affectedVersions = new ArrayList<>();
+            this.fixVersions = new ArrayList<>();
+        }
+
+        /**
+         * @param key issue key
+         * @param id issue id
+         * @param created creation date
+         * @param resolutionDate resolution date (null if not resolved)
+         * @param affectedVersions affected versions
+         * @param fixVersions fixed versions
+         */
+        public Ticket(String key, String id, String created, String resolutionDate,
+                      List<Version> affectedVersions, List<Version> fixVersions) {
+            this.key = key;
+            this.id = id;
+            this.created = created;
+            this.resolutionDate = resolutionDate;
+            this.affectedVersions = affectedVersions;
+            this.fixVersions = fixVersions;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getCreated() {
+            return created;
+        }
+
+        public String getResolutionDate() {
+            return resolutionDate;
+        }
+
+        /**
+         * @return name of the issue type, null if not requested
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return name of the status, null if not requested
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return name of the resolution, null if not requested or not resolved
+         */
+        public String getResolution() {
+            return resolution;
+        }
+
+        public List<Version> getAffectedVersions() {
+            return affectedVersions;
+        }
+
+        public List<Version> getFixVersions() {
+            return fixVersions;
+        }
+    }
+
+    /**
+     * A version of an issue, as read from JIRA
+     */
+    public static class Version {
+
+        private final String id;
+        private final String releaseDate;
+        private final boolean released;
+
+        /**
+         * @param id version id (null if missing)
+         * @param releaseDate release date (null if missing)
+         * @param released the version is released
+         */
+        public Version(String id, String releaseDate, boolean released) {
+            this.id = id;
+            this.releaseDate = releaseDate;
+            this.released = released;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReleaseDate() {
+            return releaseDate;
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+    }
+}
@@ -2,20 +2,20 @@ package org.example.logic.model.keyabstractions;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Commit {
 
     private Project project;
     private final String shaId;
+    private String fullShaId; // complete sha, stable identifier of the commit (shaId is abbreviated)
     private String message;
     private String ticketTag;
     private LocalDateTime date;
     private String author;
     private Release version;
     private List<JFile> committedFiles;
+    private List<FileChange> changes; // changes read from the history, applied later to the project files
 
     public Commit() {
         this.shaId = "head";
@@ -28,33 +28,44 @@ public class Commit {
         this.date = date;
         this.author = author;
         this.committedFiles = new ArrayList<>();
-        this.ticketTag = getTicketReference(message);
+        this.changes = new ArrayList<>();
     }
 
     /**
      * Lookup for a ticket reference in the commit message
      * @param message commit message
-     * @return ticket tag extracted
+     * @return ticket tag extracted: the words of the message (after the first 4 characters) that contain
+     * the project name followed by '-'
      */
     private String getTicketReference(String message) {
-        String proj = project.getProjName();
-        String m = message.substring(4);
-        String[] list = m.split(" ");
-        return Arrays.stream(list).parallel()
-                .filter(s -> s.contains(proj + "-"))
-                .collect(Collectors.joining());
+        if (project == null || message == null || message.length() < 4) return "";
+        String proj = project.getProjName() + "-";
+        StringBuilder tag = new StringBuilder();
+        for (String word : message.substring(4).split(" ")) {
+            if (word.contains(proj)) tag.append(word);
+        }
+        return tag.toString();
     }
 
     public String getShaId() {
         return shaId;
     }
 
+    public String getFullShaId() {
+        return fullShaId;
+    }
+
+    public void setFullShaId(String fullShaId) {
+        this.fullShaId = fullShaId;
+    }
+
     public String getMessage() {
         return message;
     }
 
     public void setMessage(String message) {
         this.message = message;
+        this.ticketTag = null;
     }
 
     public LocalDateTime getDate() {
@@ -73,7 +84,11 @@ public class Commit {
         return author;
     }
 
+    /**
+     * @return the ticket tag of the message, extracted on first use (ticket links use the TicketIndex)
+     */
     public String getTicketTag() {
+        if (ticketTag == null) ticketTag = getTicketReference(message);
         return ticketTag;
     }
 
@@ -85,6 +100,14 @@ public class Commit {
         this.version = version;
     }
 
+    public List<FileChange> getChanges() {
+        return changes;
+    }
+
+    public void addChange(FileChange change) {
+        this.changes.add(change);
+    }
+
     public void addTouchedFile(JFile newFile) {
         if (!this.committedFiles.contains(newFile)) this.committedFiles.add(newFile);
     }
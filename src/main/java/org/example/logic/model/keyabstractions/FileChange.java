@@ -0,0 +1,84 @@
+package org.example.logic.model.keyabstractions;
+
+/**
+ * Class that represents the change made by a commit on a single file
+ */
+public class FileChange {
+
+    /**
+     * Kind of change made on the file
+     */
+    public enum Type { ADDED, MODIFIED, DELETED, RENAMED }
+
+    private final Type type;
+    private final String oldPath; // path before the commit (equals path if the file was not renamed)
+    private final String path; // path after the commit
+    private final String oldBlobId; // id of the file content before the commit (null if added or unknown)
+    private final String blobId; // id of the file content after the commit (null if deleted or unknown)
+    private final int additions;
+    private final int deletions;
+
+    public FileChange(Type type, String oldPath, String path, String oldBlobId, String blobId,
+                      int additions, int deletions) {
+        this.type = type;
+        this.oldPath = oldPath;
+        this.path = path;
+        this.oldBlobId = oldBlobId;
+        this.blobId = blobId;
+        this.additions = additions;
+        this.deletions = deletions;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getOldBlobId() {
+        return oldBlobId;
+    }
+
+    public String getBlobId() {
+        return blobId;
+    }
+
+    public int getAdditions() {
+        return additions;
+    }
+
+    public int getDeletions() {
+        return deletions;
+    }
+
+    public boolean isRenamed() {
+        return type == Type.RENAMED;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    /**
+     * @return true if the change concerns a java file
+     */
+    public boolean isJavaFile() {
+        return isJavaFile(oldPath, path);
+    }
+
+    /**
+     * Checks the paths of a change before reading it, e.g. to skip the diff of the other files
+     * @param oldPath path before the change
+     * @param path path after the change
+     * @return true if the change concerns a java file
+     */
+    public static boolean isJavaFile(String oldPath, String path) {
+        return path.contains(".java") || oldPath.contains(".java");
+    }
+}
@@ -1,10 +1,19 @@
 package org.example.logic.model.keyabstractions;
 
 import org.example.logic.control.InspectionController;
+import org.example.logic.model.exceptions.CacheMissException;
+import org.example.logic.model.utils.ColdStartTable;
 import org.example.logic.model.utils.ProjectInspector;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,7 +54,7 @@ public class Issue {
         this.affectedVersions = new ArrayList<>();
         this.fixedVersions = new ArrayList<>();
         this.fixedCommits = new ArrayList<>();
-        this.opVersion = Release.findVersionByDate(affectedVersions, created);
+        this.opVersion = null; // set from the release timeline of the project
         this.p = 0;
     }
 
@@ -61,6 +70,7 @@ public class Issue {
         }
         this.affectedVersions.add(release);
         this.affectedVersions.sort(Comparator.comparing(Release::getDate));
+        affectedChanged();
     }
 
     /***
@@ -68,6 +78,20 @@ public class Issue {
      * @param issue: the issue to prepare
      */
     public static void prepareIssue(Issue issue) {
+        /* check if there are no affected versions declared: if so use proportion method */
+        if (normalizeVersions(issue)) {
+            /* apply proportion method to find injected version only if the issue belongs to the project analysed */
+            applyProportion(issue);
+        }
+    }
+
+    /***
+     * Make the fixed and affected versions retrieved from JIRA consistent: only the most recent fixed version is kept,
+     * affected versions after it are discarded
+     * @param issue: the issue to check
+     * @return true if the issue has no affected versions left, i.e. its IV is to be estimated
+     */
+    public static boolean normalizeVersions(Issue issue) {
         /* if there is more than one fixed version, consider the most recent one */
         List<Release> fixed = issue.getFixedVersions();
         while(fixed.size() > 1) {
@@ -110,11 +134,7 @@ public class Issue {
             }
         }
 
-        /* check if there are no affected versions declared: if so use proportion method */
-        if (affected.isEmpty()) {
-            /* apply proportion method to find injected version only if the issue belongs to the project analysed */
-            applyProportion(issue);
-        }
+        return affected.isEmpty();
     }
 
     /***
@@ -122,7 +142,7 @@ public class Issue {
      * on JIRA are not consistent or unreliable.
      * @param issue: the issue on which is to be applied Proportion method.
      */
-    private static void applyProportion(Issue issue) {
+    public static void applyProportion(Issue issue) {
         int fixedV;
         int openV;
         int injV;
@@ -161,7 +181,7 @@ public class Issue {
 
         /* Add all the new affected versions to the issue */
         for (int i = injV; i <= fixedV; i++) {
-            issue.addAffected(Release.findVersionByIndex(project.getVersions(), i));
+            issue.addAffected(project.getTimeline().findVersionByIndex(i));
         }
     }
 
@@ -175,48 +195,8 @@ public class Issue {
      * @return double
      */
     private static double calculateProportionMovingWindow(Issue issue, int openV, int fixedV) {
-        List<Issue> window = new ArrayList<>();
-        List<Issue> prevBugs = new ArrayList<>();
-        List<Issue> bugs = issue.project.getBugIssues();
-
-        /* take all the bugs issues (fixed) that happened before the issue that we are considering */
-        for (Issue bug: bugs) {
-            if (bug.getId().equals(issue.getId())) break;
-            prevBugs.add(bug);
-        }
-
-        /* get last 1% of the fixed bugs */
-        int numBugs = prevBugs.size();
-        int percentage = (int) Math.ceil(numBugs*0.01);
-
-        int start = numBugs - percentage; // start index of the bugs window
-
-        /* put the last 1% of the fixed bugs in the window */
-        for (int i = start; i< numBugs; i++) {
-            window.add(prevBugs.get(i));
-        }
-
-        // calculate p as the average of P in last 1% issues fixed
-        double avg;
-        double sum = 0;
-
-        /* is no previous P values are present, calculate P from other projects data */
-        if (window.isEmpty()) {
-            issue.calculatePValue(openV, fixedV);
-        } else {
-            /* use previous P values of the project to get the value of P for the current issue */
-            for (Issue value : window) {
-                value.calculatePValue(openV, fixedV);
-                sum += value.getP();
-            }
-        }
-
-        if (window.isEmpty()) {
-            avg = 0.0;
-        } else {
-            avg = sum / window.size();
-        }
-        return avg;
+        /* the window of the previous bugs is found through the index of the bugs of the project */
+        return issue.project.getProportion().estimate(issue, openV, fixedV);
     }
 
     /***
@@ -244,33 +224,54 @@ public class Issue {
     }
 
     /***
-     * Calculate the average of the P values among the other 75 apache projects
+     * Calculate the average of the P values among the other 75 apache projects.
+     * The averages of the projects are read from the cold start table when present (unless a refresh is asked),
+     * the others are computed concurrently and added to the table.
      * @param mainProjectName: the name of the main project to analyse
      * */
-    public static double calculateColdStartProportion(String mainProjectName, Properties prop) {
-        double p;
-        double sum = 0;
-        double avg;
+    public static double calculateColdStartProportion(String mainProjectName) {
         List<Double> averages = new ArrayList<>();
         double totalAvg;
         double totalSum = 0;
+        String tablePath = InspectionController.getColdStartTable();
+        ColdStartTable table = tablePath.isEmpty() ? null : new ColdStartTable(Path.of(tablePath));
+        /* a refresh computes the averages again, but keeps the rows already in the table */
+        if (table != null) table.load();
 
-        /* iterate on all projects */
+        /* compute the averages of the projects missing from the table */
+        Map<String, Future<ColdStartTable.Entry>> pending = new LinkedHashMap<>();
         for (String name : names) {
             if (name.equals(mainProjectName)) continue;
-            Project project = new Project(name, prop);
-            ProjectInspector inspector = new ProjectInspector(project);
-            /* get each project's issues */
-            List<Issue> projIssues = inspector.inspectProjectIssues();
-            for (Issue issue : projIssues) {
-                Issue.prepareIssue(issue);
-                p = issue.getP();
-                sum += p;
+            if (table == null || InspectionController.isColdStartRefresh() || table.latest(name) == null) {
+                pending.put(name, null);
+            }
+        }
+        ExecutorService pool = pending.isEmpty() ? null : Executors.newFixedThreadPool(
+                Math.max(1, Math.min(InspectionController.getColdStartWorkers(), pending.size())));
+        try {
+            for (String name : pending.keySet()) {
+                pending.put(name, pool.submit(() -> calculateProjectProportion(name)));
             }
 
-            avg = sum / projIssues.size();
-            averages.add(avg);
-            sum = 0;
+            /* iterate on all projects, in order: the sum of the averages does not depend on the workers */
+            for (String name : names) {
+                if (name.equals(mainProjectName)) continue;
+                ColdStartTable.Entry entry = pending.containsKey(name) ? awaitEntry(name, pending.get(name)) : table.latest(name);
+                if (entry == null) continue;
+                if (table != null && pending.containsKey(name)) table.put(entry);
+                averages.add(entry.getAverage());
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+
+        if (table != null && !pending.isEmpty()) {
+            try {
+                table.save();
+            } catch (IOException e) {
+                Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+                e.printStackTrace();
+            }
         }
 
         /* iterate on all averages of P of the external projects */
@@ -281,6 +282,43 @@ public class Issue {
         return totalAvg;
     }
 
+    /***
+     * Calculate the average of the P values of the issues of an external project
+     * @param name: the name of the project
+     * @return the average, with the resolution date of the most recent issue and the number of issues
+     */
+    private static ColdStartTable.Entry calculateProjectProportion(String name) {
+        double sum = 0;
+        LocalDateTime latest = null;
+        Project project = new Project(name);
+        ProjectInspector inspector = new ProjectInspector(project);
+        /* get each project's issues */
+        List<Issue> projIssues = inspector.inspectProjectIssues();
+        if (projIssues == null) throw new IllegalStateException("Issues of " + name + " not retrieved");
+        for (Issue issue : projIssues) {
+            Issue.prepareIssue(issue);
+            sum += issue.getP();
+            if (latest == null || issue.getResolution().isAfter(latest)) latest = issue.getResolution();
+        }
+        String dataTimestamp = latest == null ? "" : latest.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
+        return new ColdStartTable.Entry(name, dataTimestamp, sum / projIssues.size(), projIssues.size());
+    }
+
+    /* a project whose issues cannot be retrieved is left out of the average */
+    private static ColdStartTable.Entry awaitEntry(String name, Future<ColdStartTable.Entry> entry) {
+        try {
+            return entry.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted computing the proportion of " + name, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CacheMissException cacheMiss) throw cacheMiss;
+            Logger.getGlobal().log(Level.SEVERE, e.getCause().getMessage());
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
     public String getKey() {
         return key;
     }
@@ -299,6 +337,12 @@ public class Issue {
 
     public void setAffectedVersions(List<Release> afflictedVersions) {
         this.affectedVersions = afflictedVersions;
+        affectedChanged();
+    }
+
+    /* the moving window summarizes the affected versions of the bugs */
+    private void affectedChanged() {
+        if (project != null) project.getProportion().affectedChanged(this);
     }
 
     public List<Commit> getFixedCommits() {
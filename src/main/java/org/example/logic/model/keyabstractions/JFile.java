@@ -1,5 +1,7 @@
 package org.example.logic.model.keyabstractions;
 
+import org.example.logic.model.features.LocCount;
+
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.*;
@@ -19,7 +21,7 @@ public class JFile {
     private HashMap<Integer,Integer> maxAdditions;
     private HashMap<Integer,Integer> deletions; // (version, deletion)
     private HashMap<Integer,Integer> changes; // (version, changes)
-    private HashMap<Integer, String[]> content; // (version, content)
+    private HashMap<Integer, LocCount> locCounts; // (version, line counts of the content)
     private HashMap<Integer, Integer> ages; // (version, age)
     private HashMap<Integer, List<Commit>> revisions;
     private List<Release> releases;
@@ -45,14 +47,14 @@ public class JFile {
         this.maxAdditions = prevInstance.maxAdditions;
         this.deletions = prevInstance.deletions;
         this.changes = prevInstance.changes;
-        this.content = prevInstance.content;
+        this.locCounts = prevInstance.locCounts;
         this.ages = prevInstance.ages;
         this.revisions = prevInstance.revisions;
         /* Update features */
         updateAdditions(releaseIndex, 0);
         updateDeletions(releaseIndex, 0);
         updateChanges(releaseIndex, 0);
-        updateContent(releaseIndex, content.get(releaseIndex-1));
+        updateLocCount(releaseIndex, locCounts.get(releaseIndex-1));
         updateAge(releaseIndex);
     }
 
@@ -68,7 +70,7 @@ public class JFile {
         this.maxAdditions = oldFile.maxAdditions;
         this.deletions = oldFile.deletions;
         this.changes = oldFile.changes;
-        this.content = oldFile.content;
+        this.locCounts = oldFile.locCounts;
         this.ages = oldFile.ages;
         this.revisions = oldFile.revisions;
         /* Init releases as brand new */
@@ -93,18 +95,18 @@ public class JFile {
         this.changes = initChanges();
         this.ages = initAges();
         this.revisions = initRevisions();
-        this.content = initContent();
+        this.locCounts = initLocCounts();
         this.releases = new ArrayList<>();
         this.buggyReleases = new ArrayList<>();
     }
 
-    private HashMap<Integer, String[]> initContent() {
-        this.content = new HashMap<>();
+    private HashMap<Integer, LocCount> initLocCounts() {
+        this.locCounts = new HashMap<>();
         int numReleases = project.getVersions().size();
         for (int i = 0; i < numReleases; i++) {
-            this.content.put(i, new String[]{});
+            this.locCounts.put(i, LocCount.EMPTY);
         }
-        return content;
+        return locCounts;
     }
 
     private HashMap<Integer, List<Commit>> initRevisions() {
@@ -217,8 +219,8 @@ public class JFile {
         for (int i = createdIdx-1; i < deletedIdx; i++) {
             HashMap<String, JFile> fileHashMap = files.get(i);
             if (fileHashMap.containsKey(relpath)) {
-                String[] text = fileHashMap.get(relpath).getContent().get(i);
-                if (text.length == 0) {
+                LocCount loc = fileHashMap.get(relpath).getLocCounts().get(i);
+                if (loc.isEmpty()) {
                     project.replicateContent(i+1, prevInstance);
                     project.replicateRelease(i+1, prevInstance);
                 }
@@ -268,10 +270,24 @@ public class JFile {
         this.changes.put(version-1, ch+deltaChanges);
     }
 
-    public Map<Integer, String[]> getContent() { return content;}
+    /**
+     * Sets the churn of a release computed at once from the release diff, replacing the one accumulated
+     * commit by commit (the largest addition of a commit is not known, it is the addition of the release)
+     * @param version the release index
+     * @param addition LOC added in the release
+     * @param deletion LOC deleted in the release
+     */
+    public void setReleaseChurn(Integer version, Integer addition, Integer deletion) {
+        this.additions.put(version-1, addition);
+        this.maxAdditions.put(version-1, addition);
+        this.deletions.put(version-1, deletion);
+        this.changes.put(version-1, addition+deletion);
+    }
+
+    public Map<Integer, LocCount> getLocCounts() { return locCounts;}
 
-    public void updateContent(Integer version, String[] content) {
-        this.content.put(version-1, content);
+    public void updateLocCount(Integer version, LocCount locCount) {
+        this.locCounts.put(version-1, locCount);
     }
 
     public List<Release> getBuggyReleases() {
@@ -331,7 +347,7 @@ public class JFile {
      * @param version the release index to consider to update age
      */
     public void updateAge(int version) {
-        LocalDate releaseDate = Release.findVersionByIndex(project.getVersions(), version).getDate().toLocalDate();
+        LocalDate releaseDate = project.getTimeline().getDay(version);
         LocalDate creation = this.created.getDate().toLocalDate();
         Period period = Period.between(creation, releaseDate);
         int daysAge = period.getDays();
@@ -1,18 +1,15 @@
 package org.example.logic.model.keyabstractions;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.example.logic.control.InspectionController;
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.proportion.MovingWindowProportion;
 import org.example.logic.model.utils.Parser;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import org.example.logic.model.utils.ReleaseCatalog;
 
 /**
  * Class that represent a Project to analyse
@@ -25,11 +22,13 @@ public class Project {
     private final List<Release> versions;
     private final List<Release> viewedVersions;
     private final int viewedPercentage;
+    private final ReleaseTimeline timeline; // lookups of the releases, built when they are set
     private List<Issue> bugIssues;
+    private MovingWindowProportion proportion; // moving window over the bug issues, built when they are set
     private List<Commit> commits;
     private List<Commit> refCommits;
     private List<HashMap<JFile, JFile>> renames;
-    private List<HashMap<String, JFile>> files;
+    private List<HashMap<String, JFile>> files; // files of each release, modified only by the thread applying the commits
     private HashMap<String, List<Integer>> filesReleases;
 
     /**
@@ -37,23 +36,24 @@ public class Project {
      * @param name project name
      * @param percent the percent of the dataset to consider at the end
      * @param projpath the path to the local project repository
-     * @param prop properties
      */
-    public Project(String name, int percent, String projpath, Properties prop) {
+    public Project(String name, int percent, String projpath) {
         this.projName = name;
         this.versions = new ArrayList<>();
         this.viewedVersions = new ArrayList<>();
         this.viewedPercentage = percent;
         this.projDir = projpath;
         this.bugIssues = new ArrayList<>();
+        this.proportion = new MovingWindowProportion(this.bugIssues);
         this.commits = new ArrayList<>();
         this.refCommits = new ArrayList<>();
         this.external = false;
         this.renames = new ArrayList<>();
         this.files = new ArrayList<>();
 
-        setVersions(prop);
+        setVersions();
         setViewedVersions();
+        this.timeline = new ReleaseTimeline(this.versions, this.viewedVersions.size());
 
         for (int i=0; i<this.versions.size(); i++) {
             this.renames.add(new HashMap<>());
@@ -66,73 +66,25 @@ public class Project {
     /**
      * External project
      * @param name project name
-     * @param prop properties
      */
-    public Project(String name, Properties prop) {
+    public Project(String name) {
         this.projName = name;
         this.bugIssues = new ArrayList<>();
+        this.proportion = new MovingWindowProportion(this.bugIssues);
         this.versions = new ArrayList<>();
         this.viewedVersions = new ArrayList<>();
         this.viewedPercentage = 100;
         this.external = true;
-        setVersions(prop);
+        setVersions();
         setViewedVersions();
+        this.timeline = new ReleaseTimeline(this.versions, this.viewedVersions.size());
     }
 
     /**
-     * Sets project releases retrieved from Jira
-     * @param prop properties
+     * Sets project releases retrieved from Jira, through the release catalog
      */
-    private void setVersions(Properties prop) {
-        //Fills the arraylist with releases dates and orders them
-        //Ignores releases with missing dates
-        int i;
-        String url = "https://issues.apache.org/jira/rest/api/2/project/" + projName;
-        JSONObject json;
-
-        try (FileOutputStream fileOutputStream = new FileOutputStream(
-                Objects.requireNonNull(
-                        Project.class.getClassLoader().getResource("config.properties"))
-                        .getPath()))
-        {
-            json = Parser.getInstance().readJsonFromUrl(url);
-            JSONArray releases = json.getJSONArray("versions");
-            for (i = 0; i < releases.length(); i++ ) {
-                String relName = "";
-                String relId = "";
-
-                /* Select only the releases with a date */
-                if(releases.getJSONObject(i).has("releaseDate")) {
-                    /* Select only the releases with a name */
-                    if (releases.getJSONObject(i).has("name")) {
-                        relName = releases.getJSONObject(i).get("name").toString();
-                    }
-                    /* Select only the releases with a id */
-                    if (releases.getJSONObject(i).has("id")) {
-                        relId = releases.getJSONObject(i).get("id").toString();
-                    }
-
-                    /* Select only RELEASED and NOT ARCHIVED */
-                    boolean released = Boolean.parseBoolean(releases.getJSONObject(i).get("released").toString());
-                    boolean archived = Boolean.parseBoolean(releases.getJSONObject(i).get("archived").toString());
-                    if (released && !archived) {
-                        /* Add release to the list of project releases */
-                        addRelease(releases.getJSONObject(i).get("releaseDate").toString(),relName,relId);
-                    }
-                }
-            }
-            /* order releases by date */
-            versions.sort(Comparator.comparing(Release::getDate));
-
-            /* set index numbers to the releases */
-            Release.setIndexNumbers(versions);
-
-            // store on properties to commit changes
-            prop.store(fileOutputStream, "");
-        } catch (JSONException | IOException e) {
-            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
-            e.printStackTrace();
-        }
+    private void setVersions() {
+        versions.addAll(ReleaseCatalog.getInstance().getReleases(projName));
     }
 
     /**
@@ -154,21 +106,6 @@ public class Project {
         }
     }
 
-    /**
-     * Add a release to the list of project releases
-     * @param strDate date string
-     * @param name release name
-     * @param id the release id
-     */
-    private void addRelease(String strDate, String name, String id) {
-        LocalDate date = LocalDate.parse(strDate);
-        LocalDateTime dateTime = date.atStartOfDay();
-        Release release = new Release(id, name, dateTime);
-
-        /* set the index of the release counting the number of already explored releases */
-        this.versions.add(release);
-    }
-
     /**
      * Check if a file is present in a certain release
      * @param releaseIdx the release index
@@ -180,6 +117,17 @@ public class Project {
         return relFiles.containsKey(filepath);
     }
 
+    /**
+     * Takes a file from a certain release
+     * @param releaseIdx the release index
+     * @param filepath the complete filepath in the project
+     * @return the file instance, null if not present in the release
+     */
+    private JFile releaseFile(int releaseIdx, String filepath) {
+        HashMap<String, JFile> relFiles = files.get(releaseIdx - 1);
+        return relFiles.get(filepath);
+    }
+
     /**
      * Adds file to a certain release
      * @param releaseIdx the release index
@@ -205,7 +153,7 @@ public class Project {
         HashMap<String, JFile> relFiles = files.get(releaseIdx - 1);
         relFiles.remove(file.getRelPath());
         /* remove releases from release */
-        file.getReleases().remove(Release.findVersionByIndex(versions,releaseIdx));
+        file.getReleases().remove(timeline.findVersionByIndex(releaseIdx));
     }
 
     /**
@@ -222,15 +170,13 @@ public class Project {
 
         if (checkFile(releaseIdx, filepath)) {
             /* the file is already created in the current release - take the existing instance */
-            HashMap<String, JFile> relFiles = files.get(releaseIdx - 1);
-            return relFiles.get(filepath);
+            return releaseFile(releaseIdx, filepath);
         }
 
         for (int index = releaseIdx-1; index >= 1; index--) {
             if (checkFile(index, filepath)) {
                 /* the file was already created in a previous release - take the existing instance */
-                HashMap<String, JFile> relFiles = files.get(index-1);
-                JFile prevInstance = relFiles.get(filepath);
+                JFile prevInstance = releaseFile(index, filepath);
                 JFile file = new JFile(index + 1, prevInstance);
                 addFile(releaseIdx, file);
 
@@ -269,7 +215,7 @@ public class Project {
      * @param prevInstance the file instance
      */
     public void replicateRelease(int releaseIdx, JFile prevInstance) {
-        Release versionByIndex = Release.findVersionByIndex(versions, releaseIdx);
+        Release versionByIndex = timeline.findVersionByIndex(releaseIdx);
         prevInstance.addRelease(versionByIndex);
         prevInstance.getReleases().sort(Comparator.comparingInt(Release::getIndex));
     }
@@ -283,13 +229,60 @@ public class Project {
         int created = file.getCreated().getIndex();
         for (int i = created-1; i < releaseIdx; i++) {
             if (created == 1) continue;
-            String[] currentContent = file.getContent().get(i);
-            String[] prevContent = file.getContent().get(i - 1);
-            if (currentContent.length == 0) {
-                file.getContent().put(i, prevContent);
+            LocCount currentLoc = file.getLocCounts().get(i);
+            LocCount prevLoc = file.getLocCounts().get(i - 1);
+            if (currentLoc.isEmpty()) {
+                file.getLocCounts().put(i, prevLoc);
+            }
+        }
+
+    }
+
+    /**
+     * Sets the files of a release to the ones present in the tree of the release (snapshot): files that are not
+     * in the tree are removed from the release, missing files are added taking the instance of the latest
+     * previous release, and the line counts are the ones of the content in the tree
+     * @param releaseIdx the release index
+     * @param snapshot the line counts of the files present in the release, by filepath
+     */
+    public void applySnapshot(int releaseIdx, Map<String, LocCount> snapshot) {
+        HashMap<String, JFile> relFiles = files.get(releaseIdx - 1);
+        List<JFile> absent = relFiles.values().stream().filter(file -> !snapshot.containsKey(file.getRelPath())).toList();
+        absent.forEach(file -> removeFile(releaseIdx, file));
+
+        for (Map.Entry<String, LocCount> entry : snapshot.entrySet()) {
+            JFile file = snapshotFile(releaseIdx, entry.getKey());
+            file.updateLocCount(releaseIdx, entry.getValue());
+            file.updateAge(releaseIdx);
+            replicateRelease(releaseIdx, file);
+        }
+    }
+
+    /**
+     * Takes a file present in the tree of a release: the instance of the release if the file was touched or
+     * already replicated, otherwise a replica of the instance of the latest previous release
+     * @param releaseIdx the release index
+     * @param filepath the complete filepath in the project
+     * @return the file instance of the release
+     */
+    private JFile snapshotFile(int releaseIdx, String filepath) {
+        JFile file = releaseFile(releaseIdx, filepath);
+        if (file != null) return file;
+
+        for (int index = releaseIdx-1; index >= 1; index--) {
+            JFile prevInstance = releaseFile(index, filepath);
+            if (prevInstance != null) {
+                file = new JFile(releaseIdx, prevInstance);
+                addFile(releaseIdx, file);
+                return file;
             }
         }
 
+        /* the file was never touched by the commits mined (e.g. outside the history mode) */
+        file = new JFile(this, Parser.getInstance().parseFilenameFromFilepath(filepath), filepath,
+                timeline.findVersionByIndex(releaseIdx));
+        addFile(releaseIdx, file);
+        return file;
     }
 
     /**
@@ -299,10 +292,11 @@ public class Project {
      */
     private void addFileRelease(JFile file, int releaseIdx) {
         String filepath = file.getRelPath();
-        if (filesReleases.containsKey(filepath)) {
-            List<Integer> fileRels = filesReleases.get(filepath);
+        List<Integer> fileRels = filesReleases.get(filepath);
+        if (fileRels == null) {
+            filesReleases.put(filepath, new ArrayList<>());
+        } else {
             fileRels.add(releaseIdx);
-            filesReleases.put(filepath, fileRels);
             if (fileRels.size() > 1) {
                 int currRel = fileRels.get(fileRels.size()-1);
                 int prevRel = fileRels.get(fileRels.size()-2);
@@ -310,14 +304,11 @@ public class Project {
                 /* Replicate last file for all the previous missing releases */
                 if (checkGap(currRel, prevRel)) replicatePrevFile(currRel, prevRel, filepath);
             }
-        } else {
-            filesReleases.put(filepath, new ArrayList<>());
         }
     }
 
     private void replicatePrevFile(int currRel, int prevRel, String filepath) {
-        HashMap<String, JFile> fileList = files.get(prevRel - 1);
-        JFile file = fileList.get(filepath);
+        JFile file = releaseFile(prevRel, filepath);
         for (int i = prevRel+1; i < currRel-1; i++) {
             addFile(i, file);
         }
@@ -326,6 +317,7 @@ public class Project {
     /* GETTERS AND SETTERS */
     public void setBugIssues(List<Issue> issues) {
         this.bugIssues = issues;
+        this.proportion = new MovingWindowProportion(issues);
     }
 
     public String getProjName() {
@@ -344,6 +336,10 @@ public class Project {
         return viewedVersions;
     }
 
+    public ReleaseTimeline getTimeline() {
+        return timeline;
+    }
+
     public String getProjDir() {
         return projDir;
     }
@@ -352,6 +348,13 @@ public class Project {
         return bugIssues;
     }
 
+    /**
+     * @return the moving window proportion over the bug issues
+     */
+    public MovingWindowProportion getProportion() {
+        return proportion;
+    }
+
     public List<Commit> getCommits() {
         return commits;
     }
@@ -42,42 +42,17 @@ public class Release {
     }
 
     /**
-     * Given a date, returns the corresponding project release
-     * @param versions the list of project releases
-     * @param created date of the commit
-     * @return the release to be assigned to the commit
+     * Checks if a tag of the repository names this release: the tag is the release name, optionally
+     * prefixed by "v" or by the project name (in any case) and a dash (e.g. "1.2.0", "v1.2.0", "syncope-1.2.0")
+     * @param tagName the name of the tag
+     * @param projectName the name of the project
+     * @return true if the tag names the release
      */
-    public static Release findVersionByDate(List<Release> versions, LocalDateTime created) {
-        Release version = null;
-
-        for (Release release : versions) {
-            version = release;
-            if (version.getDate().compareTo(created) >= 0) {
-                return version;
-            }
-        }
-
-        return version;
-    }
-
-    /**
-     * Finds a release by its release index
-     * @param versions releases list
-     * @param idx release index
-     * @return an instance release
-     */
-    public static Release findVersionByIndex(List<Release> versions, int idx) {
-        Release version = null;
-
-        for (Release release : versions) {
-            version = release;
-
-            if (version.getIndex() == idx) {
-                return version;
-            }
-        }
-
-        return version;
+    public boolean matchesTag(String tagName, String projectName) {
+        if (!tag.isEmpty()) return tag.equals(tagName);
+        if (tagName.equals(name) || tagName.equals("v" + name)) return true;
+        String prefix = tagName.substring(0, Math.max(0, tagName.length() - name.length() - 1));
+        return tagName.endsWith("-" + name) && prefix.equalsIgnoreCase(projectName);
     }
 
     /* GETTERS AND SETTERS */
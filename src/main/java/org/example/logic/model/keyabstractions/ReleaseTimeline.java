@@ -0,0 +1,117 @@
+package org.example.logic.model.keyabstractions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timeline of the releases of a project, built once when the releases are known: the release of a date is
+ * found with a binary search on the release days, the release of an index or of a JIRA id, its day and whether
+ * it is viewed are found in O(1). The timeline is immutable, so it is shared by the threads mining the history.
+ */
+public class ReleaseTimeline {
+
+    private final Release[] releases; // releases ordered by date
+    private final long[] epochDays; // day of each release, as epoch day
+    private final Release[] byIndex; // release of each index (null if no release has it)
+    private final Map<String, Release> byId; // release of each JIRA version id
+    private final LocalDate[] days; // day of the release of each index
+    private final boolean[] viewed; // the release of each index is viewed
+    private final Release last; // release returned for an index without release
+    private final boolean lastViewed;
+
+    /**
+     * @param releases the releases of the project, ordered by date
+     * @param viewedCount number of releases viewed, the first ones
+     */
+    public ReleaseTimeline(List<Release> releases, int viewedCount) {
+        this.releases = releases.toArray(new Release[0]);
+        this.epochDays = new long[this.releases.length];
+        int maxIndex = 0;
+        for (int i = 0; i < this.releases.length; i++) {
+            epochDays[i] = this.releases[i].getDate().toLocalDate().toEpochDay();
+            maxIndex = Math.max(maxIndex, this.releases[i].getIndex());
+        }
+        this.byId = new HashMap<>();
+        for (Release release : this.releases) {
+            byId.putIfAbsent(release.getId(), release);
+        }
+        this.byIndex = new Release[maxIndex + 1];
+        this.days = new LocalDate[maxIndex + 1];
+        this.viewed = new boolean[maxIndex + 1];
+        /* filled backwards: with two releases with the same index, the first one is kept */
+        for (int i = this.releases.length - 1; i >= 0; i--) {
+            int index = this.releases[i].getIndex();
+            byIndex[index] = this.releases[i];
+            days[index] = LocalDate.ofEpochDay(epochDays[i]);
+            viewed[index] = i < viewedCount;
+        }
+        this.last = this.releases.length == 0 ? null : this.releases[this.releases.length - 1];
+        this.lastViewed = this.releases.length > 0 && this.releases.length <= viewedCount;
+    }
+
+    /**
+     * Given a date, returns the corresponding project release: the first release not before the date
+     * @param date the date (e.g. of a commit)
+     * @return the release, the last one if the date is after all the releases (null if there are no releases)
+     */
+    public Release findVersionByDate(LocalDateTime date) {
+        long day = date.toLocalDate().toEpochDay();
+        /* first release on the day of the date or after it */
+        int low = 0;
+        int high = releases.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < day) low = mid + 1;
+            else high = mid;
+        }
+        /* the releases on the same day are compared with the time of the date */
+        while (low < releases.length && releases[low].getDate().compareTo(date) < 0) low++;
+        return low < releases.length ? releases[low] : last;
+    }
+
+    /**
+     * Finds a release by its release index
+     * @param index release index
+     * @return the release, the last one if no release has the index (null if there are no releases)
+     */
+    public Release findVersionByIndex(int index) {
+        Release release = index >= 0 && index < byIndex.length ? byIndex[index] : null;
+        return release != null ? release : last;
+    }
+
+    /**
+     * Finds a release by the id of its version on JIRA
+     * @param id the version id
+     * @return the release, null if the version is not a project release
+     */
+    public Release findVersionById(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Gets the day of a release, e.g. to calculate ages
+     * @param index release index
+     * @return the day of the release (of the last one if no release has the index)
+     */
+    public LocalDate getDay(int index) {
+        Release release = index >= 0 && index < byIndex.length ? byIndex[index] : null;
+        return release != null ? days[index] : last.getDate().toLocalDate();
+    }
+
+    /**
+     * Checks if a release is viewed, i.e. its records are selected for the dataset
+     * @param index release index
+     * @return true if the release (the last one if no release has the index) is viewed
+     */
+    public boolean isViewed(int index) {
+        Release release = index >= 0 && index < byIndex.length ? byIndex[index] : null;
+        return release != null ? viewed[index] : lastViewed;
+    }
+
+    public int size() {
+        return releases.length;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.logic.model.proportion;
+
+/**
+ * Cold start proportion: the P of every issue is the average P of the other projects.
+ */
+public class ColdStartEstimator implements InjectedVersionEstimator {
+
+    private final double coldProportion;
+
+    /**
+     * @param coldProportion the average P of the other projects
+     */
+    public ColdStartEstimator(double coldProportion) {
+        this.coldProportion = coldProportion;
+    }
+
+    @Override
+    public String getName() {
+        return "cold_start";
+    }
+
+    @Override
+    public ProportionEstimate estimate(IssueTable issues) {
+        ProportionEstimate estimate = new ProportionEstimate(issues);
+        for (int i = 0; i < issues.size(); i++) {
+            if (issues.isEstimated(i)) estimate.set(i, coldProportion, issues.injectedVersion(i, coldProportion));
+        }
+        return estimate;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.logic.model.proportion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs several injected version estimators on the same issues and compares each estimate with a reference
+ * labeling (e.g. the one of the current run): the issues are mined once for all the estimators.
+ */
+public class EstimatorComparison {
+
+    private static final int ROUNDS = 5; // runs of each estimator, the fastest one is reported
+
+    private EstimatorComparison() {}
+
+    /**
+     * Compares the estimators with the reference labeling
+     * @param issues the issues, ordered by fix date
+     * @param reference index of the injected version of each issue in the reference labeling
+     * @param estimators the estimators to compare
+     * @return a row for each estimator, in the same order
+     */
+    public static List<Row> compare(IssueTable issues, int[] reference, List<InjectedVersionEstimator> estimators) {
+        List<Row> rows = new ArrayList<>();
+        for (InjectedVersionEstimator estimator : estimators) {
+            ProportionEstimate estimate = null;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                estimate = estimator.estimate(issues);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            rows.add(compare(estimator.getName(), best / 1e6, estimate, reference));
+        }
+        return rows;
+    }
+
+    /* an issue affects the versions from the injected to the fixed one: moving IV by n changes n labels */
+    private static Row compare(String name, double millis, ProportionEstimate estimate, int[] reference) {
+        IssueTable issues = estimate.getIssues();
+        int estimated = 0;
+        int changedIssues = 0;
+        int changedLabels = 0;
+        double sum = 0;
+        for (int i = 0; i < issues.size(); i++) {
+            if (!issues.isEstimated(i)) continue;
+            estimated++;
+            sum += estimate.getP(i);
+            int difference = Math.abs(estimate.getInjected(i) - reference[i]);
+            if (difference > 0) changedIssues++;
+            changedLabels += difference;
+        }
+        return new Row(name, millis, estimated, changedIssues, changedLabels, estimated == 0 ? 0 : sum / estimated);
+    }
+
+    /**
+     * Comparison of an estimator with the reference labeling
+     */
+    public static class Row {
+
+        private final String estimator;
+        private final double millis; // runtime of the estimate
+        private final int estimated; // issues estimated
+        private final int changedIssues; // estimated issues with an injected version different from the reference
+        private final int changedLabels; // (issue, affected version) pairs added or removed
+        private final double averageP; // average P of the estimated issues
+
+        public Row(String estimator, double millis, int estimated, int changedIssues, int changedLabels, double averageP) {
+            this.estimator = estimator;
+            this.millis = millis;
+            this.estimated = estimated;
+            this.changedIssues = changedIssues;
+            this.changedLabels = changedLabels;
+            this.averageP = averageP;
+        }
+
+        public String getEstimator() {
+            return estimator;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        public int getEstimated() {
+            return estimated;
+        }
+
+        public int getChangedIssues() {
+            return changedIssues;
+        }
+
+        public int getChangedLabels() {
+            return changedLabels;
+        }
+
+        public double getAverageP() {
+            return averageP;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.logic.model.proportion;
+
+/**
+ * Incremental proportion: the P of an issue is the average of the P values of all the bugs fixed before it with
+ * the injected version declared on JIRA, each one calculated with its own versions. The sum is kept while the
+ * table is read, so an estimate costs O(1). Before the first of those bugs, the average P of the other projects.
+ */
+public class IncrementalEstimator implements InjectedVersionEstimator {
+
+    private final double coldProportion;
+
+    /**
+     * @param coldProportion the average P of the other projects
+     */
+    public IncrementalEstimator(double coldProportion) {
+        this.coldProportion = coldProportion;
+    }
+
+    @Override
+    public String getName() {
+        return "incremental";
+    }
+
+    @Override
+    public ProportionEstimate estimate(IssueTable issues) {
+        ProportionEstimate estimate = new ProportionEstimate(issues);
+        double sum = 0;
+        int known = 0;
+        for (int i = 0; i < issues.size(); i++) {
+            if (!issues.isEstimated(i)) {
+                sum += IssueTable.proportion(issues.getInjected(i), issues.getOpening(i), issues.getFix(i));
+                known++;
+                continue;
+            }
+            double p = known == 0 ? coldProportion : sum / known;
+            estimate.set(i, p, issues.injectedVersion(i, p));
+        }
+        return estimate;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.logic.model.proportion;
+
+import java.util.List;
+
+/**
+ * Estimator of the injected version of the bug issues whose affected versions on JIRA are missing or not
+ * consistent. An estimator reads the whole table of the issues, ordered by fix date, in one pass.
+ */
+public interface InjectedVersionEstimator {
+
+    /**
+     * Gets the name of the estimator, as in the config file
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Estimates the injected version of the issues to estimate. The estimate of an issue depends only on the
+     * issues fixed before it
+     * @param issues the issues, ordered by fix date
+     * @return P and injected version of each issue
+     */
+    ProportionEstimate estimate(IssueTable issues);
+
+    /**
+     * Creates the estimator named in the config file
+     * @param name "incremental", "cold_start", "simple" or "moving_window" (the default)
+     * @param coldProportion the average P of the other projects
+     * @return the estimator
+     */
+    static InjectedVersionEstimator of(String name, double coldProportion) {
+        return switch (name.toLowerCase()) {
+            case "incremental" -> new IncrementalEstimator(coldProportion);
+            case "cold_start" -> new ColdStartEstimator(coldProportion);
+            case "simple" -> new SimpleEstimator();
+            default -> new MovingWindowEstimator(coldProportion);
+        };
+    }
+
+    /**
+     * Creates all the estimators
+     * @param coldProportion the average P of the other projects
+     * @return the estimators
+     */
+    static List<InjectedVersionEstimator> all(double coldProportion) {
+        return List.of(new MovingWindowEstimator(coldProportion), new IncrementalEstimator(coldProportion),
+                new ColdStartEstimator(coldProportion), new SimpleEstimator());
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.logic.model.proportion;
+
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Release;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Versions of the bug issues of a project, ordered by fix date, as arrays of release indexes: the input of the
+ * injected version estimators. The issues are read once; the estimators never change them.
+ */
+public class IssueTable {
+
+    private final int[] openings; // index of the opening version of each issue
+    private final int[] fixes; // index of the fixed version of each issue (the opening version if not known)
+    private final int[] injected; // index of the injected version declared on JIRA, 0 if it is to be estimated
+
+    /**
+     * @param openings index of the opening version of each issue
+     * @param fixes index of the fixed version of each issue, not before the opening version
+     * @param injected index of the injected version of each issue, 0 if it is to be estimated
+     */
+    public IssueTable(int[] openings, int[] fixes, int[] injected) {
+        this.openings = openings;
+        this.fixes = fixes;
+        this.injected = injected;
+    }
+
+    /**
+     * Reads the versions of the bug issues, after the fixed and affected versions of JIRA are made consistent
+     * @param bugs the bug issues, ordered by fix date
+     * @param toEstimate the issues whose injected version is to be estimated
+     * @return the table
+     */
+    public static IssueTable of(List<Issue> bugs, Predicate<Issue> toEstimate) {
+        int[] openings = new int[bugs.size()];
+        int[] fixes = new int[bugs.size()];
+        int[] injected = new int[bugs.size()];
+        for (int i = 0; i < bugs.size(); i++) {
+            Issue issue = bugs.get(i);
+            int openV = issue.getOpVersion().getIndex();
+            /* as in the proportion method: no fixed version means fixed in the opening version, inverted if before it */
+            int fixedV = issue.getFixedVersions().isEmpty() ? openV : issue.getFixedVersions().get(0).getIndex();
+            openings[i] = Math.min(openV, fixedV);
+            fixes[i] = Math.max(openV, fixedV);
+            injected[i] = toEstimate.test(issue) ? 0 : firstAffected(issue);
+        }
+        return new IssueTable(openings, fixes, injected);
+    }
+
+    /**
+     * Gets the index of the first affected version of an issue
+     * @param issue the issue
+     * @return the index, 0 if the issue has no affected versions
+     */
+    public static int firstAffected(Issue issue) {
+        List<Release> affected = issue.getAffectedVersions();
+        return affected.isEmpty() ? 0 : affected.get(0).getIndex();
+    }
+
+    public int size() {
+        return openings.length;
+    }
+
+    public int getOpening(int i) {
+        return openings[i];
+    }
+
+    public int getFix(int i) {
+        return fixes[i];
+    }
+
+    public int getInjected(int i) {
+        return injected[i];
+    }
+
+    public boolean isEstimated(int i) {
+        return injected[i] == 0;
+    }
+
+    /**
+     * Calculates the injected version of an issue from its P, considering that (FV - IV) / (FV - OV) = P
+     * @param i position of the issue
+     * @param p the P of the issue
+     * @return the index of the injected version, between 1 and the opening version
+     */
+    public int injectedVersion(int i, double p) {
+        int injV = (int) (fixes[i] - (fixes[i] - openings[i]) * p);
+        if (injV <= 0) injV = 1;
+        return Math.min(injV, openings[i]);
+    }
+
+    /**
+     * Calculates P of an issue whose injected version is known, considering the versions of another issue
+     * (if OV = FV, then P = 1)
+     * @param injV index of the injected version
+     * @param openV index of the opening version
+     * @param fixedV index of the fixed version
+     * @return P
+     */
+    static double proportion(int injV, int openV, int fixedV) {
+        return fixedV == openV ? 1 : (double) (fixedV - injV) / (fixedV - openV);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.logic.model.proportion;
+
+/**
+ * Proportion with Moving Window: the P of an issue is the average of the P values of the last 1% of the bugs
+ * fixed before it, each one calculated with its injected version (estimated, if it was to be estimated) and the
+ * opening and fixed versions of the issue. No bug fixed before the issue means P = 0.
+ */
+public class MovingWindowEstimator implements InjectedVersionEstimator {
+
+    private final double coldProportion; // P of the bugs in the window without an injected version
+
+    /**
+     * @param coldProportion the average P of the other projects
+     */
+    public MovingWindowEstimator(double coldProportion) {
+        this.coldProportion = coldProportion;
+    }
+
+    @Override
+    public String getName() {
+        return "moving_window";
+    }
+
+    @Override
+    public ProportionEstimate estimate(IssueTable issues) {
+        ProportionEstimate estimate = new ProportionEstimate(issues);
+        for (int i = 0; i < issues.size(); i++) {
+            if (!issues.isEstimated(i)) continue;
+            int openV = issues.getOpening(i);
+            int fixedV = issues.getFix(i);
+            /* the window is [i - size, i): the bugs before i are already estimated */
+            int size = (int) Math.ceil(i * MovingWindowProportion.WINDOW_SHARE);
+            double p = 0.0;
+            if (size > 0) {
+                int affected = 0;
+                long injectedSum = 0;
+                for (int w = i - size; w < i; w++) {
+                    int injV = estimate.getInjected(w);
+                    if (injV == 0) continue;
+                    affected++;
+                    injectedSum += injV;
+                }
+                p = MovingWindowProportion.average(size, affected, injectedSum, openV, fixedV, coldProportion);
+            }
+            estimate.set(i, p, issues.injectedVersion(i, p));
+        }
+        return estimate;
+    }
+}
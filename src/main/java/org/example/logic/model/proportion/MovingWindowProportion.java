@@ -0,0 +1,112 @@
+package org.example.logic.model.proportion;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Release;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Proportion with Moving Window over the bug issues of a project, ordered by fix date: the P of an issue is
+ * the average of the P values of the last 1% of the bugs fixed before it.
+ * The position of each bug is indexed once, and the bugs are summarized with prefix sums of their injected
+ * versions (first affected version) and prefix counts of the bugs with affected versions: the P values of
+ * a window, that depend on the opening and fixed versions of the issue, are averaged in O(1).
+ * The prefixes after a bug whose affected versions change are computed again when a window reaches them.
+ */
+public class MovingWindowProportion {
+
+    static final double WINDOW_SHARE = 0.01; // share of the previous bugs in the window
+
+    private final List<Issue> bugs;
+    private final Map<String, Integer> positions; // issue id -> position of the first bug with that id
+    private final Map<Issue, Integer> indexes; // bug -> its position
+    private final long[] injected; // injected[i]: sum of the injected versions of the bugs [0, i) with affected versions
+    private final int[] withAffected; // withAffected[i]: number of the bugs [0, i) with affected versions
+    private int valid; // the prefixes [0, valid] are up to date
+
+    /**
+     * @param bugs the bug issues of the project, ordered by fix date
+     */
+    public MovingWindowProportion(List<Issue> bugs) {
+        this.bugs = bugs;
+        this.positions = new HashMap<>();
+        this.indexes = new IdentityHashMap<>();
+        for (int i = 0; i < bugs.size(); i++) {
+            positions.putIfAbsent(bugs.get(i).getId(), i);
+            indexes.put(bugs.get(i), i);
+        }
+        this.injected = new long[bugs.size() + 1];
+        this.withAffected = new int[bugs.size() + 1];
+    }
+
+    /**
+     * Estimates the P of an issue: the average of the P values the bugs in the window have on the opening
+     * and fixed versions of the issue (see {@link Issue#calculatePValue(int, int)})
+     * @param issue the issue (if it is not one of the bugs, all the bugs are fixed before it)
+     * @param openV the index of the opening version of the issue
+     * @param fixedV the index of the fixed version of the issue
+     * @return the average P of the window, 0.0 if no bug is fixed before the issue
+     */
+    public synchronized double estimate(Issue issue, int openV, int fixedV) {
+        /* bugs fixed before the issue: [0, end) */
+        int end = positions.getOrDefault(issue.getId(), bugs.size());
+        int size = (int) Math.ceil(end * WINDOW_SHARE);
+
+        /* is no previous P values are present, calculate P from other projects data */
+        if (size == 0) {
+            issue.calculatePValue(openV, fixedV);
+            return 0.0;
+        }
+
+        update(end);
+        int start = end - size;
+        return average(size, withAffected[end] - withAffected[start], injected[end] - injected[start],
+                openV, fixedV, InspectionController.getColdProportion());
+    }
+
+    /**
+     * Averages the P values of a window on the opening and fixed versions of an issue
+     * @param size the number of bugs in the window
+     * @param affected the number of bugs in the window with an injected version
+     * @param injectedSum the sum of the injected versions of those bugs
+     * @param openV the index of the opening version of the issue
+     * @param fixedV the index of the fixed version of the issue
+     * @param coldProportion the P of the bugs without an injected version
+     * @return the average P of the window
+     */
+    static double average(int size, int affected, long injectedSum, int openV, int fixedV, double coldProportion) {
+        /* bugs without affected versions take the average P of the other projects */
+        double sum = (size - affected) * coldProportion;
+        if (fixedV == openV) {
+            sum += affected;
+        } else {
+            /* sum of (FV - IV) / (FV - OV) over the bugs with affected versions */
+            sum += (double) ((long) affected * fixedV - injectedSum) / (fixedV - openV);
+        }
+        return sum / size;
+    }
+
+    /**
+     * Marks the prefixes after a bug as out of date, when its affected versions change
+     * @param issue the issue whose affected versions changed
+     */
+    public synchronized void affectedChanged(Issue issue) {
+        Integer index = indexes.get(issue);
+        if (index != null && index < valid) valid = index;
+    }
+
+    /* brings the prefixes up to date until the end of a window */
+    private void update(int end) {
+        for (int i = valid; i < end; i++) {
+            List<Release> affected = bugs.get(i).getAffectedVersions();
+            boolean hasAffected = !affected.isEmpty();
+            injected[i + 1] = injected[i] + (hasAffected ? affected.get(0).getIndex() : 0);
+            withAffected[i + 1] = withAffected[i] + (hasAffected ? 1 : 0);
+        }
+        valid = Math.max(valid, end);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.logic.model.proportion;
+
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.ReleaseTimeline;
+
+import java.util.List;
+
+/**
+ * Result of an injected version estimator: P and injected version of each issue of a table.
+ * The issues with the injected version declared on JIRA keep it (and P = 0).
+ */
+public class ProportionEstimate {
+
+    private final IssueTable issues;
+    private final double[] proportions;
+    private final int[] injected;
+
+    /**
+     * @param issues the issues estimated
+     */
+    public ProportionEstimate(IssueTable issues) {
+        this.issues = issues;
+        this.proportions = new double[issues.size()];
+        this.injected = new int[issues.size()];
+        for (int i = 0; i < issues.size(); i++) {
+            injected[i] = issues.getInjected(i);
+        }
+    }
+
+    /**
+     * Sets the estimate of an issue
+     * @param i position of the issue
+     * @param p P of the issue
+     * @param injV index of the injected version
+     */
+    public void set(int i, double p, int injV) {
+        proportions[i] = p;
+        injected[i] = injV;
+    }
+
+    public double getP(int i) {
+        return proportions[i];
+    }
+
+    public int getInjected(int i) {
+        return injected[i];
+    }
+
+    public IssueTable getIssues() {
+        return issues;
+    }
+
+    /**
+     * Labels the issues with the estimate: each estimated issue gets its P and affects the versions from the
+     * injected version to the fixed version
+     * @param bugs the issues of the table, in the same order
+     * @param timeline the releases of the project
+     */
+    public void apply(List<Issue> bugs, ReleaseTimeline timeline) {
+        for (int i = 0; i < issues.size(); i++) {
+            if (!issues.isEstimated(i)) continue;
+            Issue issue = bugs.get(i);
+            issue.setP(proportions[i]);
+            for (int v = injected[i]; v <= issues.getFix(i); v++) {
+                issue.addAffected(timeline.findVersionByIndex(v));
+            }
+        }
+    }
+}
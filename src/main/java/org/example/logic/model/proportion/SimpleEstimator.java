@@ -0,0 +1,21 @@
+package org.example.logic.model.proportion;
+
+/**
+ * Simple method: the injected version of an issue is its opening version (P = 1).
+ */
+public class SimpleEstimator implements InjectedVersionEstimator {
+
+    @Override
+    public String getName() {
+        return "simple";
+    }
+
+    @Override
+    public ProportionEstimate estimate(IssueTable issues) {
+        ProportionEstimate estimate = new ProportionEstimate(issues);
+        for (int i = 0; i < issues.size(); i++) {
+            if (issues.isEstimated(i)) estimate.set(i, 1, issues.getOpening(i));
+        }
+        return estimate;
+    }
+}
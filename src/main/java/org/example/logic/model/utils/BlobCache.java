@@ -0,0 +1,173 @@
+package org.example.logic.model.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache of values derived from Git blobs, keyed by blob id (blobs are immutable, so entries never go stale).
+ * Entries are evicted in LRU order when their total weight exceeds the budget.
+ * Concurrent requests for the same blob share a single load.
+ * @param <V> the type of the cached values
+ */
+public class BlobCache<V> {
+
+    /**
+     * Loads the values of many blobs at once
+     * @param <V> the type of the values
+     */
+    public interface Loader<V> {
+        /**
+         * @param blobIds the blobs to load
+         * @return the values, in the same order of the ids (null for missing blobs)
+         * @throws IOException error reading the blobs
+         */
+        List<V> loadAll(List<String> blobIds) throws IOException;
+    }
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<String, V> entries; // access ordered: eldest entry is the least recently used
+    private final Map<String, CompletableFuture<V>> loading;
+    private long weight;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * @param maxWeight memory budget, in the unit of the weigher
+     * @param weigher estimates the weight of a value
+     */
+    public BlobCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true);
+        this.loading = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Gets the values of many blobs, loading the missing ones with a single call to the loader.
+     * Blobs already being loaded by another thread are not loaded again: their load is awaited.
+     * @param blobIds ids of the blobs
+     * @param loader loads the blobs not in cache
+     * @return the values, in the same order of the ids
+     * @throws IOException error loading the blobs
+     */
+    public List<V> getAll(List<String> blobIds, Loader<V> loader) throws IOException {
+        List<CompletableFuture<V>> results = new ArrayList<>(blobIds.size());
+        List<String> claimedIds = new ArrayList<>();
+        List<CompletableFuture<V>> claimed = new ArrayList<>();
+
+        for (String id : blobIds) {
+            V value = lookup(id);
+            if (value != null) {
+                hits.incrementAndGet();
+                results.add(CompletableFuture.completedFuture(value));
+                continue;
+            }
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = loading.putIfAbsent(id, future);
+            if (inFlight != null) {
+                /* another request is loading the same blob: share its result */
+                hits.incrementAndGet();
+                results.add(inFlight);
+            } else if ((value = lookup(id)) != null) {
+                /* loaded by another request in the meanwhile */
+                loading.remove(id);
+                hits.incrementAndGet();
+                future.complete(value);
+                results.add(future);
+            } else {
+                misses.incrementAndGet();
+                claimedIds.add(id);
+                claimed.add(future);
+                results.add(future);
+            }
+        }
+
+        if (!claimedIds.isEmpty()) load(claimedIds, claimed, loader);
+
+        List<V> values = new ArrayList<>(results.size());
+        for (CompletableFuture<V> result : results) {
+            values.add(join(result));
+        }
+        return values;
+    }
+
+    private void load(List<String> ids, List<CompletableFuture<V>> futures, Loader<V> loader) throws IOException {
+        try {
+            List<V> loaded = loader.loadAll(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                V value = loaded.get(i);
+                if (value != null) store(ids.get(i), value);
+                futures.get(i).complete(value);
+            }
+        } catch (IOException | RuntimeException e) {
+            futures.forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            ids.forEach(loading::remove);
+        }
+    }
+
+    private V join(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a blob", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error loading a blob", e.getCause());
+        }
+    }
+
+    private synchronized V lookup(String id) {
+        return entries.get(id);
+    }
+
+    private synchronized void store(String id, V value) {
+        V previous = entries.put(id, value);
+        if (previous != null) weight -= weigher.applyAsLong(previous);
+        weight += weigher.applyAsLong(value);
+
+        /* evict least recently used entries until the budget is respected */
+        Iterator<Map.Entry<String, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<String, V> entry = eldest.next();
+            weight -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -4,10 +4,13 @@ import org.example.logic.model.keyabstractions.Commit;
 import org.example.logic.model.keyabstractions.Issue;
 import org.example.logic.model.keyabstractions.Release;
 import org.example.logic.model.keyabstractions.Record;
+import org.example.logic.model.proportion.EstimatorComparison;
 
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -125,6 +128,59 @@ public class CSVWriter {
         }
     }
 
+    /**
+     * Writes the metadata of the mining (e.g. the history mode) into a CSV format file
+     * @param metadata the metadata, as (name, value)
+     * @param filename name of the output file
+     * @param projName name of the project
+     */
+    public void writeMetadata(Map<String, String> metadata, String filename, String projName) {
+        String outname = projName + filename + ".csv";
+        try (FileWriter fileWriter = new FileWriter(outname)) {
+            fileWriter.append("Name;Value");
+            fileWriter.append("\n");
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                fileWriter.append(entry.getKey());
+                fileWriter.append(";");
+                fileWriter.append(entry.getValue());
+                fileWriter.append("\n");
+            }
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the comparison of the injected version estimators into a CSV format file
+     * @param rows a row for each estimator
+     * @param filename name of the output file
+     * @param projName name of the project
+     */
+    public void writeEstimatorComparison(List<EstimatorComparison.Row> rows, String filename, String projName) {
+        String outname = projName + filename + ".csv";
+        try (FileWriter fileWriter = new FileWriter(outname)) {
+            fileWriter.append("Estimator;Runtime (ms);Estimated Issues;Changed Issues;Changed Labels;Average P");
+            fileWriter.append("\n");
+            for (EstimatorComparison.Row row : rows) {
+                fileWriter.append(row.getEstimator());
+                fileWriter.append(";");
+                fileWriter.append(String.format(Locale.ROOT, "%.3f", row.getMillis()));
+                fileWriter.append(";");
+                fileWriter.append(Integer.toString(row.getEstimated()));
+                fileWriter.append(";");
+                fileWriter.append(Integer.toString(row.getChangedIssues()));
+                fileWriter.append(";");
+                fileWriter.append(Integer.toString(row.getChangedLabels()));
+                fileWriter.append(";");
+                fileWriter.append(String.format(Locale.ROOT, "%.4f", row.getAverageP()));
+                fileWriter.append("\n");
+            }
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
     /**
      * Writes dataset
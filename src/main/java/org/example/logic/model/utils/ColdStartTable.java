@@ -0,0 +1,148 @@
+package org.example.logic.model.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On disk table of the average P values of the external projects used by the cold start proportion,
+ * keyed by project name and data timestamp (resolution date of the most recent issue of the project).
+ * The averages computed on newer data are added as new rows, the newest row of a project is the one used.
+ * A table written with another format version is ignored.
+ */
+public class ColdStartTable {
+
+    private static final String VERSION = "# cold start proportion v1";
+
+    private final Path file;
+    private final Map<String, TreeMap<String, Entry>> entries; // project -> data timestamp -> entry
+
+    /**
+     * @param file the file of the table
+     */
+    public ColdStartTable(Path file) {
+        this.file = file;
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Loads the table. A table written with another format version (or unreadable) is ignored
+     */
+    public void load() {
+        entries.clear();
+        if (!Files.exists(file)) return;
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = input.readLine();
+            if (!VERSION.equals(line)) {
+                Logger.getGlobal().log(Level.WARNING, "Cold start table written with another version: computing again");
+                return;
+            }
+            while ((line = input.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] fields = line.split("\t", -1);
+                put(new Entry(fields[0], fields[1], Double.parseDouble(fields[2]), Integer.parseInt(fields[3])));
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the average computed on the newest data of a project
+     * @param project name of the project
+     * @return the entry, null if the project is not in the table
+     */
+    public Entry latest(String project) {
+        TreeMap<String, Entry> rows = entries.get(project);
+        return rows == null ? null : rows.lastEntry().getValue();
+    }
+
+    /**
+     * Adds an entry, replacing the one of the same project computed on the same data
+     * @param entry the entry
+     */
+    public void put(Entry entry) {
+        entries.computeIfAbsent(entry.project, p -> new TreeMap<>()).put(entry.dataTimestamp, entry);
+    }
+
+    /**
+     * Writes the table, replacing the file only when it is completely written
+     * @throws IOException error writing the table
+     */
+    public void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(file.getFileName() + ".tmp");
+        try (BufferedWriter output = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            output.write(VERSION);
+            output.newLine();
+            for (Entry entry : sortedEntries()) {
+                output.write(String.join("\t", entry.project, entry.dataTimestamp,
+                        String.valueOf(entry.average), String.valueOf(entry.issues)));
+                output.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Entry> sortedEntries() {
+        List<Entry> sorted = new ArrayList<>();
+        for (TreeMap<String, Entry> rows : new TreeMap<>(entries).values()) {
+            sorted.addAll(rows.values());
+        }
+        return sorted;
+    }
+
+    /**
+     * Average P of the issues of a project
+     */
+    public static class Entry {
+
+        private final String project;
+        private final String dataTimestamp;
+        private final double average;
+        private final int issues;
+
+        /**
+         * @param project name of the project
+         * @param dataTimestamp resolution date of the most recent issue used
+         * @param average average P of the issues
+         * @param issues number of issues used
+         */
+        public Entry(String project, String dataTimestamp, double average, int issues) {
+            this.project = project;
+            this.dataTimestamp = dataTimestamp;
+            this.average = average;
+            this.issues = issues;
+        }
+
+        public String getProject() {
+            return project;
+        }
+
+        public String getDataTimestamp() {
+            return dataTimestamp;
+        }
+
+        public double getAverage() {
+            return average;
+        }
+
+        public int getIssues() {
+            return issues;
+        }
+    }
+}
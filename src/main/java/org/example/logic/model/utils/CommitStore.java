@@ -0,0 +1,239 @@
+package org.example.logic.model.utils;
+
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.handlers.GitHandler;
+import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.FileChange;
+import org.example.logic.model.keyabstractions.Project;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On disk store of the mining results of each commit (metadata, changes and line counts of the touched files),
+ * keyed by full sha. Commits are immutable, so a run only needs to mine the commits arrived after the
+ * high-water mark (the HEAD of the last run) and can rebuild the others from the store.
+ * The store is discarded when the settings that affect the mining results change.
+ */
+public class CommitStore {
+
+    private static final String COMMIT_RECORD = "C";
+    private static final String CHANGE_RECORD = "F";
+
+    private final Path commitsFile; // one line for each commit, followed by one line for each of its changes
+    private final Path markFile; // settings and high-water mark
+    private final String settings;
+    private final Map<String, StoredCommit> commits;
+    private String mark;
+    private boolean valid; // the commits file was written with the current settings
+
+    /**
+     * @param dir directory of the store
+     * @param projName name of the project
+     * @param settings description of the settings that affect the mining results
+     */
+    public CommitStore(File dir, String projName, String settings) {
+        this.commitsFile = new File(dir, projName + ".commits").toPath();
+        this.markFile = new File(dir, projName + ".mark").toPath();
+        this.settings = settings;
+        this.commits = new HashMap<>();
+    }
+
+    /**
+     * Loads the store. A store written with different settings (or unreadable) is ignored
+     */
+    public void load() {
+        commits.clear();
+        mark = null;
+        valid = false;
+        if (!Files.exists(markFile) || !Files.exists(commitsFile)) return;
+        try {
+            List<String> markLines = Files.readAllLines(markFile, StandardCharsets.UTF_8);
+            if (markLines.size() < 2 || !markLines.get(0).equals(settings)) {
+                Logger.getGlobal().log(Level.WARNING, "Commit store written with different settings: mining again");
+                return;
+            }
+            readCommits();
+            mark = markLines.get(1);
+            valid = true;
+        } catch (IOException | RuntimeException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+            commits.clear();
+        }
+    }
+
+    private void readCommits() throws IOException {
+        try (BufferedReader input = Files.newBufferedReader(commitsFile, StandardCharsets.UTF_8)) {
+            StoredCommit commit = null;
+            String line;
+            while ((line = input.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields[0].equals(COMMIT_RECORD)) {
+                    commit = new StoredCommit(fields);
+                    commits.put(commit.fullSha, commit);
+                } else if (fields[0].equals(CHANGE_RECORD) && commit != null) {
+                    commit.addChange(fields);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return full sha of the HEAD when the store was last updated, null if the store is empty
+     */
+    public String getMark() {
+        return mark;
+    }
+
+    public boolean contains(String fullSha) {
+        return commits.containsKey(fullSha);
+    }
+
+    public int size() {
+        return commits.size();
+    }
+
+    /**
+     * Rebuilds a stored commit, with its changes and its release assigned
+     * @param project the project of the commit
+     * @param fullSha full sha of the commit
+     * @return the commit
+     */
+    public Commit restoreCommit(Project project, String fullSha) {
+        StoredCommit stored = commits.get(fullSha);
+        Commit commit = new Commit(project, stored.sha, stored.message,
+                Parser.getInstance().parseDateToLocalDateTime(stored.date), stored.author);
+        commit.setFullShaId(fullSha);
+        commit.setVersion(project.getTimeline().findVersionByDate(commit.getDate()));
+        stored.changes.forEach(commit::addChange);
+        return commit;
+    }
+
+    /**
+     * Gets the stored line counts of the files touched by a commit
+     * @param fullSha full sha of the commit
+     * @return the line counts, one for each change of the commit
+     */
+    public List<LocCount> getLocCounts(String fullSha) {
+        return commits.get(fullSha).locCounts;
+    }
+
+    /**
+     * Adds the results of newly mined commits to the store and moves the high-water mark. Commits already
+     * in the store are not written again
+     * @param mined the commits mined
+     * @param newMark full sha of the HEAD mined
+     * @throws IOException error writing the store
+     */
+    public void append(List<GitHandler.MinedCommit> mined, String newMark) throws IOException {
+        Files.createDirectories(commitsFile.toAbsolutePath().getParent());
+        /* a store written with other settings is replaced */
+        StandardOpenOption mode = valid ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (BufferedWriter output = Files.newBufferedWriter(commitsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            for (GitHandler.MinedCommit result : mined) {
+                if (valid && commits.containsKey(result.getCommit().getFullShaId())) continue;
+                writeCommit(output, result);
+            }
+        }
+        valid = true;
+
+        /* the mark is moved only after the commits are written */
+        Path tmp = markFile.resolveSibling(markFile.getFileName() + ".tmp");
+        Files.write(tmp, List.of(settings, newMark == null ? "" : newMark), StandardCharsets.UTF_8);
+        Files.move(tmp, markFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        mark = newMark;
+    }
+
+    private void writeCommit(BufferedWriter output, GitHandler.MinedCommit result) throws IOException {
+        Commit commit = result.getCommit();
+        output.write(String.join("\t", COMMIT_RECORD, commit.getFullShaId(), commit.getShaId(),
+                Parser.getInstance().parseLocalDateToString(commit.getDate()),
+                escape(commit.getMessage()), escape(commit.getAuthor())));
+        output.newLine();
+        List<FileChange> changes = result.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            FileChange change = changes.get(i);
+            LocCount locCount = result.getLocCounts().get(i);
+            output.write(String.join("\t", CHANGE_RECORD, change.getType().name(),
+                    escape(change.getOldPath()), escape(change.getPath()),
+                    escape(change.getOldBlobId()), escape(change.getBlobId()),
+                    String.valueOf(change.getAdditions()), String.valueOf(change.getDeletions()),
+                    String.valueOf(locCount.getLines()), String.valueOf(locCount.getSize()),
+                    String.valueOf(locCount.getCommentLines()), String.valueOf(locCount.getBlankLines())));
+            output.newLine();
+        }
+    }
+
+    /* fields are separated by tabs: tabs and line breaks in the values are escaped, null becomes empty */
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.isEmpty()) return null;
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't' -> result.append('\t');
+                    case 'n' -> result.append('\n');
+                    case 'r' -> result.append('\r');
+                    default -> result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * A commit read from the store
+     */
+    private static class StoredCommit {
+
+        private final String fullSha;
+        private final String sha;
+        private final String date;
+        private final String message;
+        private final String author;
+        private final List<FileChange> changes;
+        private final List<LocCount> locCounts;
+
+        StoredCommit(String[] fields) {
+            this.fullSha = fields[1];
+            this.sha = fields[2];
+            this.date = fields[3];
+            this.message = unescape(fields[4]);
+            this.author = unescape(fields[5]);
+            this.changes = new ArrayList<>();
+            this.locCounts = new ArrayList<>();
+        }
+
+        void addChange(String[] fields) {
+            changes.add(new FileChange(FileChange.Type.valueOf(fields[1]), unescape(fields[2]), unescape(fields[3]),
+                    unescape(fields[4]), unescape(fields[5]),
+                    Integer.parseInt(fields[6]), Integer.parseInt(fields[7])));
+            locCounts.add(new LocCount(Integer.parseInt(fields[8]), Integer.parseInt(fields[9]),
+                    Integer.parseInt(fields[10]), Integer.parseInt(fields[11])));
+        }
+    }
+}
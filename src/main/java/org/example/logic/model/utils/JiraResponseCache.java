@@ -0,0 +1,221 @@
+package org.example.logic.model.utils;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.exceptions.CacheMissException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On disk cache of the responses of the JIRA REST API, keyed by normalized request URL.
+ * Each response is stored gzip compressed in its own file, and is fresh for a time to live.
+ * In offline mode no request is sent: responses are served only from the cache (even if expired)
+ * and a missing response stops the run.
+ */
+public class JiraResponseCache {
+
+    /**
+     * Sends a request, when the response is not in cache
+     */
+    public interface Fetcher {
+        /**
+         * @param url the request URL
+         * @return the response body, to be closed by the caller
+         * @throws IOException error sending the request
+         */
+        InputStream fetch(String url) throws IOException;
+    }
+
+    private static final String SUFFIX = ".json.gz";
+
+    private static JiraResponseCache instance;
+
+    private final Path dir; // null if responses are not cached
+    private final long ttlMillis; // 0 = responses never expire
+    private final boolean offline;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * @param dir directory of the cache (null to disable the cache)
+     * @param ttlMillis time to live of the responses, in milliseconds (0 = responses never expire)
+     * @param offline true to serve responses only from the cache
+     */
+    public JiraResponseCache(Path dir, long ttlMillis, boolean offline) {
+        this.dir = dir;
+        this.ttlMillis = ttlMillis;
+        this.offline = offline;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    public static synchronized JiraResponseCache getInstance() {
+        if (instance == null) {
+            String cacheDir = InspectionController.getJiraCacheDir();
+            instance = new JiraResponseCache(cacheDir.isEmpty() ? null : Path.of(cacheDir),
+                    TimeUnit.HOURS.toMillis(InspectionController.getJiraCacheTtlHours()),
+                    InspectionController.isJiraOffline());
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the response to a request, from the cache if fresh, otherwise from the fetcher. A response fetched
+     * is streamed to the cache and then read from it, so that it is never held in memory
+     * @param url the request URL
+     * @param fetcher sends the request
+     * @return the response body, to be closed by the caller
+     * @throws IOException error sending the request
+     * @throws CacheMissException offline mode and the response is not in cache
+     */
+    public InputStream open(String url, Fetcher fetcher) throws IOException {
+        String key = normalize(url);
+        Path entry = dir != null ? dir.resolve(hash(key) + SUFFIX) : null;
+        if (entry != null && Files.exists(entry) && (offline || isFresh(entry))) {
+            InputStream body = openEntry(entry, key);
+            if (body != null) {
+                hits.incrementAndGet();
+                return body;
+            }
+        }
+        misses.incrementAndGet();
+        if (offline) throw new CacheMissException("No cached response in offline mode for: " + url);
+        if (entry == null) return fetcher.fetch(url);
+
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "JIRA response not cached: " + e.getMessage());
+            return fetcher.fetch(url);
+        }
+        write(entry, key, fetcher.fetch(url));
+        InputStream body = openEntry(entry, key);
+        if (body == null) throw new IOException("JIRA response not readable from the cache: " + url);
+        return body;
+    }
+
+    private boolean isFresh(Path entry) throws IOException {
+        if (ttlMillis <= 0) return true;
+        long age = System.currentTimeMillis() - Files.getLastModifiedTime(entry).toMillis();
+        return age < ttlMillis;
+    }
+
+    /**
+     * Opens a cached response: the first line is the normalized URL, that must match the key
+     * (a different URL means a hash collision, a damaged entry is ignored as well)
+     * @return the response body, positioned after the first line, null if the entry cannot be used
+     */
+    private InputStream openEntry(Path entry, String key) {
+        InputStream input = null;
+        try {
+            input = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(entry)));
+            ByteArrayOutputStream firstLine = new ByteArrayOutputStream();
+            int c;
+            while ((c = input.read()) != -1 && c != '\n') {
+                firstLine.write(c);
+            }
+            if (key.equals(firstLine.toString(StandardCharsets.UTF_8))) return input;
+            input.close();
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Damaged JIRA cache entry " + entry + ": " + e.getMessage());
+            closeQuietly(input);
+        }
+        return null;
+    }
+
+    /* the entry is written to a temporary file and then moved, so that readers never see partial entries */
+    private void write(Path entry, String key, InputStream body) throws IOException {
+        Path tmp = Files.createTempFile(dir, "response", ".tmp");
+        try (InputStream input = body;
+             OutputStream output = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            output.write((key + "\n").getBytes(StandardCharsets.UTF_8));
+            input.transferTo(output);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void closeQuietly(InputStream input) {
+        if (input == null) return;
+        try {
+            input.close();
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, e.getMessage());
+        }
+    }
+
+    /**
+     * Normalizes a request URL, so that equivalent requests share the cache entry: scheme and host are
+     * lower case, the default port and the fragment are dropped and the query parameters are sorted
+     * @param url the request URL
+     * @return the normalized URL
+     */
+    public static String normalize(String url) {
+        try {
+            URI uri = new URI(url);
+            if (uri.getScheme() == null || uri.getHost() == null) return url;
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            StringBuilder normalized = new StringBuilder(scheme).append("://")
+                    .append(uri.getHost().toLowerCase(Locale.ROOT));
+            int port = uri.getPort();
+            boolean defaultPort = (scheme.equals("https") && port == 443) || (scheme.equals("http") && port == 80);
+            if (port != -1 && !defaultPort) normalized.append(':').append(port);
+            normalized.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+            String query = uri.getRawQuery();
+            if (query != null && !query.isEmpty()) {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                normalized.append('?').append(String.join("&", params));
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.logic.model.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser of a JSON document, reading the input incrementally: values are consumed one at a time and
+ * the ones not needed are skipped without being built, so the document is never held in memory.
+ * Numbers, booleans and strings are all read as text.
+ */
+public class JsonStreamReader implements AutoCloseable {
+
+    private final Reader in;
+    private final char[] buffer;
+    private int pos;
+    private int limit;
+
+    public JsonStreamReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[8192];
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    /**
+     * Checks if the current object or array has another member, consuming the separator before it
+     * @return false at the end of the object or array
+     * @throws IOException error reading the input
+     */
+    public boolean hasNext() throws IOException {
+        int c = peek();
+        if (c == ',') {
+            pos++;
+            c = peek();
+        }
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    /**
+     * Reads the name of the next member of an object
+     * @return the name
+     * @throws IOException error reading the input, or the input is not a name
+     */
+    public String nextName() throws IOException {
+        if (peek() != '"') throw syntaxError("name expected");
+        pos++;
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Reads the next value, that must not be an object or an array
+     * @return the text of the value (strings unescaped), null for a JSON null
+     * @throws IOException error reading the input, or the value is an object or an array
+     */
+    public String nextString() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            pos++;
+            return readString();
+        }
+        if (c == '{' || c == '[' || c == -1) throw syntaxError("value expected");
+        String literal = readLiteral();
+        return literal.equals("null") ? null : literal;
+    }
+
+    /**
+     * Checks if the next value is an object
+     * @return true if the next value is an object
+     * @throws IOException error reading the input
+     */
+    public boolean peekObject() throws IOException {
+        return peek() == '{';
+    }
+
+    /**
+     * Checks if the next value is an array
+     * @return true if the next value is an array
+     * @throws IOException error reading the input
+     */
+    public boolean peekArray() throws IOException {
+        return peek() == '[';
+    }
+
+    /**
+     * Skips the next value, with all its content
+     * @throws IOException error reading the input
+     */
+    public void skipValue() throws IOException {
+        int c = peek();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else {
+            nextString();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /* reads a string after the opening quote, up to the closing quote */
+    private String readString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) throw syntaxError("unterminated string");
+            if (c == '"') return value.toString();
+            if (c == '\\') {
+                int escaped = read();
+                switch (escaped) {
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> value.append(readUnicode());
+                    case -1 -> throw syntaxError("unterminated string");
+                    default -> value.append((char) escaped);
+                }
+            } else {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private char readUnicode() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) throw syntaxError("bad unicode escape");
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+
+    /* reads a number, true, false or null, up to the next delimiter */
+    private String readLiteral() throws IOException {
+        StringBuilder literal = new StringBuilder();
+        while (true) {
+            if (pos == limit && !fill()) break;
+            char c = buffer[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) break;
+            literal.append(c);
+            pos++;
+        }
+        return literal.toString();
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) throw syntaxError("'" + expected + "' expected");
+        pos++;
+    }
+
+    /* next character that is not a whitespace, without consuming it (-1 at the end of the input) */
+    private int peek() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            char c = buffer[pos];
+            if (!Character.isWhitespace(c)) return c;
+            pos++;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) return false;
+        pos = 0;
+        limit = read;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
@@ -5,15 +5,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.StringTokenizer;
 
+import org.example.logic.model.handlers.JiraClient;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 public class Parser {
 
@@ -21,7 +22,7 @@ public class Parser {
 
     private Parser() {}
 
-    public static Parser getInstance() {
+    public static synchronized Parser getInstance() {
         if (instance == null) {
             instance = new Parser();
         }
@@ -47,21 +48,28 @@ public class Parser {
         return sb.toString();
     }
 
+    /**
+     * Reads a JSON object from a URL, through the JIRA response cache
+     * @param url the request URL
+     * @return the JSON object
+     * @throws IOException error sending the request
+     * @throws JSONException the response is not a JSON object
+     */
     public JSONObject readJsonFromUrl(String url) throws IOException, JSONException {
-        try (InputStream is = new URL(url).openStream()) {
-            BufferedReader rd = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
-            String jsonText = readAll(rd);
-            return new JSONObject(jsonText);
+        try (Reader rd = openUrl(url)) {
+            return new JSONObject(new JSONTokener(rd));
         }
     }
 
-    private String readAll(Reader rd) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        int cp;
-        while ((cp = rd.read()) != -1) {
-            sb.append((char) cp);
-        }
-        return sb.toString();
+    /**
+     * Opens the response to a request through the JIRA response cache, to be read incrementally
+     * @param url the request URL
+     * @return a reader of the response body, to be closed by the caller
+     * @throws IOException error sending the request
+     */
+    public Reader openUrl(String url) throws IOException {
+        InputStream is = JiraResponseCache.getInstance().open(url, JiraClient.getInstance()::fetch);
+        return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
     }
 
     /**
@@ -2,14 +2,27 @@ package org.example.logic.model.utils;
 
 import org.example.logic.control.InspectionController;
 import org.example.logic.model.features.FeatureCalculator;
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.exceptions.MiningException;
+import org.example.logic.model.handlers.CommitSource;
 import org.example.logic.model.handlers.GitHandler;
+import org.example.logic.model.handlers.GitProcessExecutor;
+import org.example.logic.model.handlers.JGitHandler;
 import org.example.logic.model.handlers.JIRAHandler;
 import org.example.logic.model.keyabstractions.*;
 import org.example.logic.model.keyabstractions.Record;
+import org.example.logic.model.proportion.EstimatorComparison;
+import org.example.logic.model.proportion.InjectedVersionEstimator;
+import org.example.logic.model.proportion.IssueTable;
 
+import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,14 +30,46 @@ public class ProjectInspector {
 
     private final Project project;
     private final GitHandler git;
+    private final CommitSource commitSource;
     private final JIRAHandler jira;
     private final List<Record> datasetRecords;
+    private final CommitStore commitStore; // null if the mining results are not stored
+    private final Set<String> restoredCommits; // full sha of the commits rebuilt from the store
+    private String minedHead; // full sha of the HEAD mined in this run
+    private TicketIndex ticketIndex; // ticket references in the commit messages, built when the commits are retrieved
+    private IssueTable proportionTable; // versions of the bug issues before the IV estimate, built when the issues are retrieved
 
     public ProjectInspector(Project project) {
         this.project = project;
         this.git = new GitHandler(project);
+        /* commits are read in process with JGit when selected, otherwise through the git executable */
+        if (InspectionController.getGitBackend().equalsIgnoreCase("jgit")) {
+            this.commitSource = new JGitHandler(project);
+        } else {
+            this.commitSource = git;
+        }
         this.jira = new JIRAHandler(project);
         this.datasetRecords = new ArrayList<>();
+        String storeDir = InspectionController.getCommitStoreDir();
+        this.commitStore = storeDir.isEmpty() ? null
+                : new CommitStore(new File(storeDir), project.getProjName(), miningSettings());
+        this.restoredCommits = new HashSet<>();
+    }
+
+    /**
+     * @return the settings that affect the mining results: stored results are reused only with the same settings
+     */
+    private String miningSettings() {
+        return "git_backend=" + InspectionController.getGitBackend()
+                + ";mining_mode=" + InspectionController.getMiningMode()
+                + ";rename_score=" + InspectionController.getRenameScore()
+                + ";rename_limit=" + InspectionController.getRenameLimit()
+                + ";history_mode=" + InspectionController.getHistoryMode()
+                + ";feature_engine=" + InspectionController.getFeatureEngine()
+                /* stores written before merges were diffed against the first parent by every path are mined again */
+                + ";merges=first_parent_diff"
+                /* blob ids are stored in full */
+                + ";blob_ids=full";
     }
 
     /**
@@ -32,7 +77,7 @@ public class ProjectInspector {
      * @return list of project commits
      */
     public List<Commit> inspectProjectCommits() {
-        List<Commit> commits = git.lookupForCommits();
+        List<Commit> commits = commitStore != null ? lookupForCommitsIncrementally() : commitSource.lookupForCommits();
         /* filter only commits that reference an issue (contains in the message something like:
             "[PROJECTNAME-#]" or PROJECTNAME-
          */
@@ -43,23 +88,186 @@ public class ProjectInspector {
         /* set project commits and referenced commits */
         project.setCommits(commits);
         project.setRefCommits(refCommits);
+        ticketIndex = new TicketIndex(commits);
         return commits;
     }
 
 
+    /**
+     * Retrieve the commits of the project reusing the commit store: only the commits arrived after the
+     * high-water mark are read from the repository, the others are rebuilt from the store
+     * @return list of project commits, ordered by date
+     */
+    private List<Commit> lookupForCommitsIncrementally() {
+        commitStore.load();
+        List<String> ids = commitSource.lookupForCommitIds();
+        Map<String, Commit> mined = new HashMap<>();
+        if (ids.stream().anyMatch(id -> !commitStore.contains(id))) {
+            /* the mark allows to skip the stored history only if it is still part of the history (no rewrites) */
+            String mark = commitStore.getMark();
+            String since = mark != null && new HashSet<>(ids).contains(mark) ? mark : null;
+            for (Commit commit : commitSource.lookupForCommits(since)) {
+                mined.put(commit.getFullShaId(), commit);
+            }
+        }
+
+        List<Commit> commits = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            /* stored commits mined again (the mark is no longer in the history) are restored, not stored twice */
+            Commit commit;
+            if (commitStore.contains(id)) {
+                commit = commitStore.restoreCommit(project, id);
+                restoredCommits.add(id);
+            } else {
+                commit = mined.get(id);
+            }
+            if (commit != null) commits.add(commit);
+        }
+        /* the HEAD is the last commit in history order */
+        minedHead = ids.isEmpty() ? null : ids.get(ids.size() - 1);
+
+        /* Order commits retrieved by date */
+        commits.sort(Comparator.comparing(Commit::getDate));
+        InspectionController.simpleDebug("--> Commit store: " + restoredCommits.size() + " commits restored, "
+                + (commits.size() - restoredCommits.size()) + " commits read from the repository");
+        return commits;
+    }
+
     /**
      * Retrieves all the files of the project selected in the config file
      */
     public void inspectProjectFiles() {
         /* retrieve files from git */
         List<Commit> commitList = project.getCommits();
-        commitList.forEach(git::lookupForFiles);
+        /* the changes were already read with the commits (always with JGit): no more git processes needed */
+        boolean fromHistory = commitSource != git || InspectionController.getMiningMode().equalsIgnoreCase("single_pass")
+                || isReleaseEngine();
+        List<GitHandler.MinedCommit> newlyMined = new ArrayList<>();
+        try {
+            if (InspectionController.getMiningWorkers() > 1) {
+                mineCommitsInParallel(commitList, fromHistory, InspectionController.getMiningWorkers(), newlyMined);
+            } else {
+                for (Commit commit : commitList) {
+                    applyMined(mineCommit(commit, fromHistory), newlyMined);
+                }
+            }
+        } finally {
+            /* file contents are read only while mining: release the blob reader processes */
+            git.closeBlobReader();
+        }
+        BlobCache<LocCount> cache = git.getBlobCache();
+        InspectionController.simpleDebug("--> Blob cache: " + cache.getHits() + " hits, " + cache.getMisses()
+                + " misses, " + cache.getEvictions() + " evictions");
+        InspectionController.simpleDebug("--> Git processes:\n" + GitProcessExecutor.getInstance().report());
+        if (commitStore != null) storeMinedCommits(newlyMined);
+    }
+
+    /**
+     * Reads the changes of a commit, from the commit store if the commit was rebuilt from it
+     * @param commit the commit
+     * @param fromHistory true if the changes were already read with the history
+     * @return the changes read
+     */
+    private GitHandler.MinedCommit mineCommit(Commit commit, boolean fromHistory) {
+        if (restoredCommits.contains(commit.getFullShaId())) {
+            return new GitHandler.MinedCommit(commit, commit.getChanges(), commitStore.getLocCounts(commit.getFullShaId()));
+        }
+        /* with the release engine the contents are read once for each release, not for each commit */
+        if (isReleaseEngine()) return git.mineTouchedFiles(commit);
+        return git.mineCommit(commit, fromHistory);
+    }
+
+    /**
+     * @return true if churn and size are computed from the diff of the release trees instead of each commit
+     */
+    private boolean isReleaseEngine() {
+        return InspectionController.getFeatureEngine().equalsIgnoreCase("release");
+    }
+
+    /**
+     * Applies the changes of a commit to the project files, keeping the ones read from the repository
+     * @param mined the changes of the commit
+     * @param newlyMined the changes read from the repository in this run, to be stored
+     */
+    private void applyMined(GitHandler.MinedCommit mined, List<GitHandler.MinedCommit> newlyMined) {
+        git.applyChanges(mined);
+        if (commitStore != null && !restoredCommits.contains(mined.getCommit().getFullShaId())) newlyMined.add(mined);
+    }
+
+    /**
+     * Adds the commits mined in this run to the commit store
+     * @param newlyMined the changes read from the repository
+     */
+    private void storeMinedCommits(List<GitHandler.MinedCommit> newlyMined) {
+        try {
+            commitStore.append(newlyMined, minedHead);
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Mines the commits with a pool of workers. Workers only read from the repository (changes and line
+     * counts of the touched files); the changes are applied to the project files by the calling thread,
+     * one commit at a time and in commit order, so that renames, deletions and modifications of the same
+     * file are applied exactly as in the sequential mining
+     * @param commitList the commits, in commit order
+     * @param fromHistory true if the changes were already read with the history
+     * @param workers number of worker threads
+     * @param newlyMined collects the changes read from the repository
+     */
+    private void mineCommitsInParallel(List<Commit> commitList, boolean fromHistory, int workers,
+                                       List<GitHandler.MinedCommit> newlyMined) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        /* bound the commits read ahead, so that the pending results do not pile up in memory */
+        int window = workers * 4;
+        Deque<Future<GitHandler.MinedCommit>> pending = new ArrayDeque<>(window);
+        Iterator<Commit> toMine = commitList.iterator();
+        try {
+            for (Commit commit : commitList) {
+                while (pending.size() < window && toMine.hasNext()) {
+                    Commit next = toMine.next();
+                    pending.add(executor.submit(() -> mineCommit(next, fromHistory)));
+                }
+                applyMined(awaitMined(pending.poll(), commit, fromHistory), newlyMined);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the changes of a commit read by a worker. If a git command of the worker failed the run
+     * stops; if the worker failed otherwise the commit is read again by the calling thread
+     * @param future the result of the worker
+     * @param commit the commit
+     * @param fromHistory true if the changes were already read with the history
+     * @return the changes read
+     */
+    private GitHandler.MinedCommit awaitMined(Future<GitHandler.MinedCommit> future, Commit commit, boolean fromHistory) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MiningException) throw (MiningException) e.getCause();
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+        return mineCommit(commit, fromHistory);
     }
 
     /**
      * Fixes gaps of release in files' releases
      */
     public void fixReleaseGaps() {
+        if (InspectionController.getFileUniverse().equalsIgnoreCase("snapshot") || isReleaseEngine()) {
+            /* the files of each release are read from the tree of the release, no replication needed */
+            applyReleaseSnapshots();
+            return;
+        }
         /* fix release gaps */
         int numReleases = project.getVersions().size();
         List<HashMap<String, JFile>> files = project.getFiles();
@@ -69,6 +277,115 @@ public class ProjectInspector {
         }
     }
 
+    /**
+     * Sets the files of each release to the java files in the tree at the release boundary, with the line
+     * counts of their content: only the blobs that differ from the previous release are read.
+     * With the release engine, the churn of each release is also computed from the diff of its tree
+     * against the tree of the previous release
+     */
+    private void applyReleaseSnapshots() {
+        JGitHandler repository = new JGitHandler(project);
+        List<Release> releases = project.getVersions();
+        List<String> boundaries = findReleaseBoundaries(repository, releases);
+        List<Map<String, String>> trees = repository.lookupForSnapshots(boundaries);
+        List<List<FileChange>> releaseChanges = isReleaseEngine() ? repository.lookupForTreeChanges(boundaries) : null;
+        Map<String, LocCount> prevCounts = new HashMap<>(); // line counts of the previous release, by blob id
+        try {
+            for (int i = 0; i < releases.size(); i++) {
+                Map<String, LocCount> counts = readSnapshotCounts(trees.get(i), prevCounts);
+                Map<String, LocCount> snapshot = new HashMap<>();
+                trees.get(i).forEach((path, blobId) -> snapshot.put(path, counts.get(blobId)));
+                project.applySnapshot(i + 1, snapshot);
+                if (releaseChanges != null) applyReleaseChurn(i + 1, releaseChanges.get(i));
+                prevCounts = counts;
+            }
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        } finally {
+            git.closeBlobReader();
+        }
+    }
+
+    /**
+     * Counts the lines of the files in a release tree, reusing the counts of the blobs already in the previous one
+     * @param tree the blob id of each file, by filepath
+     * @param prevCounts the line counts of the previous release, by blob id
+     * @return the line counts of the release, by blob id
+     * @throws IOException error reading the repository
+     */
+    private Map<String, LocCount> readSnapshotCounts(Map<String, String> tree, Map<String, LocCount> prevCounts)
+            throws IOException {
+        Map<String, LocCount> counts = new HashMap<>();
+        List<String> toRead = new ArrayList<>();
+        for (String blobId : new HashSet<>(tree.values())) {
+            LocCount prev = prevCounts.get(blobId);
+            if (prev != null) counts.put(blobId, prev);
+            else toRead.add(blobId);
+        }
+        List<LocCount> read = git.readLocCounts(toRead);
+        for (int i = 0; i < toRead.size(); i++) {
+            counts.put(toRead.get(i), read.get(i));
+        }
+        return counts;
+    }
+
+    /**
+     * Sets the churn of the files of a release from the changes made since the previous release
+     * (files not changed have no churn in the release)
+     * @param releaseIdx the release index
+     * @param changes the changes of the release diff
+     */
+    private void applyReleaseChurn(int releaseIdx, List<FileChange> changes) {
+        Map<String, FileChange> changesByPath = new HashMap<>();
+        changes.forEach(change -> changesByPath.put(change.getPath(), change));
+        project.getFiles().get(releaseIdx - 1).forEach((path, file) -> {
+            FileChange change = changesByPath.get(path);
+            if (change != null) file.setReleaseChurn(releaseIdx, change.getAdditions(), change.getDeletions());
+            else file.setReleaseChurn(releaseIdx, 0, 0);
+        });
+    }
+
+    /**
+     * Finds the commit at the boundary of each release: the commit of the tag of the release, if any,
+     * otherwise the last commit assigned to the release or to a previous one. A tag is used only if its
+     * commit is assigned to the release or to a previous one, so that the snapshot agrees with the commits
+     * @param repository the repository of the project
+     * @param releases the releases, ordered by date
+     * @return the full sha of the boundary commits, one for each release (null if no commit precedes the release)
+     */
+    private List<String> findReleaseBoundaries(JGitHandler repository, List<Release> releases) {
+        Map<String, String> tags = repository.lookupForTags();
+        Map<String, Commit> commitsById = new HashMap<>();
+        project.getCommits().forEach(commit -> commitsById.put(commit.getFullShaId(), commit));
+
+        List<String> boundaries = new ArrayList<>(releases.size());
+        Iterator<Commit> commits = project.getCommits().iterator();
+        Commit next = commits.hasNext() ? commits.next() : null;
+        Commit last = null;
+        for (Release release : releases) {
+            /* commits are ordered by date, as the releases they are assigned to */
+            while (next != null && next.getVersion().getIndex() <= release.getIndex()) {
+                last = next;
+                next = commits.hasNext() ? commits.next() : null;
+            }
+            String boundary = last != null ? last.getFullShaId() : null;
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                Commit tagged = commitsById.get(tag.getValue());
+                if (release.matchesTag(tag.getKey(), project.getProjName()) && tagged != null
+                        && tagged.getVersion().getIndex() <= release.getIndex()) {
+                    release.setTag(tag.getKey());
+                    boundary = tagged.getFullShaId();
+                    break;
+                }
+            }
+            InspectionController.simpleDebug("--> Release " + release.getName() + " snapshot: "
+                    + (release.getTag().isEmpty() ? "last commit " + boundary : "tag " + release.getTag()));
+            boundaries.add(boundary);
+        }
+        return boundaries;
+    }
+
     /**
      * Retrieve project issues (bug type) from Jira
      * @return issues list of the project
@@ -77,8 +394,16 @@ public class ProjectInspector {
         List<Issue> bugs = null;
         try {
             bugs = jira.retrieveProjectIssues("Bug");
+            /* the IV of the bugs of an external project is always calculated as each bug is read: the cold start
+            * proportion does not depend on the estimator */
+            boolean perIssue = project.isExternal()
+                    || InspectionController.getProportionEstimator().equalsIgnoreCase("per_issue");
+            Set<Issue> toEstimate = Collections.newSetFromMap(new IdentityHashMap<>());
             for (Issue i: bugs) {
-                Issue.prepareIssue(i);
+                if (Issue.normalizeVersions(i)) {
+                    toEstimate.add(i);
+                    if (perIssue) Issue.applyProportion(i);
+                }
                 /* retrieve the fixed commits of the issue */
                 if (!project.isExternal()) i.setFixedCommits(findLinkedToIssueCommits(project, i.getKey()));
             }
@@ -106,6 +431,13 @@ public class ProjectInspector {
             }).toList();
             project.setBugIssues(sortedBugs);
 
+            /* the IVs to estimate are kept apart from the labeling, to compare the estimators on them */
+            if (!project.isExternal()) proportionTable = IssueTable.of(sortedBugs, toEstimate::contains);
+            if (!perIssue) {
+                InjectedVersionEstimator.of(InspectionController.getProportionEstimator(), InspectionController.getColdProportion())
+                        .estimate(proportionTable).apply(sortedBugs, project.getTimeline());
+            }
+
         } catch (IOException e) {
             Logger.getGlobal().log(Level.SEVERE, e.getMessage());
             e.printStackTrace();
@@ -114,20 +446,32 @@ public class ProjectInspector {
         return bugs;
     }
 
+    /**
+     * Runs all the injected version estimators on the bug issues, ordered by fix date, and compares them with
+     * the labeling of the issues
+     * @return a row for each estimator (empty if the issues have not been inspected)
+     */
+    public List<EstimatorComparison.Row> compareEstimators() {
+        if (proportionTable == null) return new ArrayList<>();
+        List<Issue> bugs = project.getBugIssues();
+        int[] labeling = new int[bugs.size()];
+        for (int i = 0; i < bugs.size(); i++) {
+            labeling[i] = IssueTable.firstAffected(bugs.get(i));
+        }
+        return EstimatorComparison.compare(proportionTable, labeling,
+                InjectedVersionEstimator.all(InspectionController.getColdProportion()));
+    }
+
     /**
      * Filter the commits of the project to those which have the issue key referenced in the commit message
+     * (followed by ':', ']' or ' '), looking up the ticket index
      * @param project the project to inspect
      * @param issueKey the key of the issue to filter the commits
      * @return list of the bug-fixing commits
      */
     private List<Commit> findLinkedToIssueCommits(Project project, String issueKey) {
-        List<Commit> fixedCommits = new ArrayList<>();
-
-        project.getCommits().parallelStream().filter(commit -> commit.getMessage().contains(issueKey+":") ||
-                commit.getMessage().contains(issueKey+"]") ||
-                commit.getMessage().contains(issueKey+ " "))
-                .forEach(fixedCommits::add);
-        return fixedCommits;
+        if (ticketIndex == null) ticketIndex = new TicketIndex(project.getCommits());
+        return ticketIndex.commitsOf(issueKey);
     }
 
     /**
@@ -285,13 +629,13 @@ public class ProjectInspector {
                 .get(releaseIdx - 1);
         String recordKey = file.getRelPath();
 
-        String[] content = file.getContent().get(releaseIdx-1);
+        LocCount locCount = file.getLocCounts().get(releaseIdx-1);
         int additions = file.getAdditions().get(releaseIdx-1);
         int maxAdditions = file.getMaxAdditions().get(releaseIdx-1);
         int deletions = file.getDeletions().get(releaseIdx-1);
         int age = file.getAges().get(releaseIdx-1);
 
-        if (content.length == 0) {
+        if (locCount.isEmpty()) {
             /* last commit in release deleted the file */
             releaseRecords.remove(recordKey);
         } else {
@@ -300,7 +644,7 @@ public class ProjectInspector {
                 FeatureCalculator.setAdditions(rec, additions);
                 FeatureCalculator.setMaxLocAdded(rec, maxAdditions);
                 FeatureCalculator.setDeletions(rec, deletions);
-                FeatureCalculator.updateLOC(content, rec);
+                FeatureCalculator.updateLOC(locCount, rec);
                 FeatureCalculator.calculateLOCTouched(rec);
                 FeatureCalculator.updateChurn(rec);
                 FeatureCalculator.calculateAge(age, rec);
@@ -349,10 +693,7 @@ public class ProjectInspector {
      */
     public List<Record> selectRecords(List<Record> records) {
         /* select record if belongs to selected releases (e.g first 50%) */
-        return records.stream().filter(rec -> {
-            Release recRelease = Release.findVersionByIndex(project.getVersions(), rec.getVersion());
-            return project.getViewedVersions().contains(recRelease);
-        }).toList();
+        return records.stream().filter(rec -> project.getTimeline().isViewed(rec.getVersion())).toList();
     }
 
     public List<Record> getDatasetRecords() {
@@ -0,0 +1,203 @@
+package org.example.logic.model.utils;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.keyabstractions.Release;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Catalog of the releases of the projects on JIRA. The versions of each project are requested once,
+ * ordered and indexed, and kept in memory; with a catalog directory they are also kept in a compact
+ * snapshot on disk (one line for each release), reused by the next runs while fresh and only for the
+ * JIRA server it was requested to.
+ * Each project built receives its own copies of the releases.
+ */
+public class ReleaseCatalog {
+
+    private static final String VERSION = "# release catalog v2";
+    private static final String SOURCE = "# source ";
+    private static final String SUFFIX = ".releases";
+
+    private static ReleaseCatalog instance;
+
+    private final Path dir; // null if the releases are kept only in memory
+    private final long ttlMillis; // 0 = snapshots never expire
+    private final boolean offline;
+    private final Map<String, List<Release>> releases; // project URL -> releases, ordered and indexed
+    private final Map<String, Object> locks; // a project is loaded once, different projects concurrently
+
+    /**
+     * @param dir directory of the snapshots (null to keep the releases only in memory)
+     * @param ttlMillis time to live of the snapshots, in milliseconds (0 = snapshots never expire)
+     * @param offline true to use the snapshots even if expired
+     */
+    public ReleaseCatalog(Path dir, long ttlMillis, boolean offline) {
+        this.dir = dir;
+        this.ttlMillis = ttlMillis;
+        this.offline = offline;
+        this.releases = new ConcurrentHashMap<>();
+        this.locks = new ConcurrentHashMap<>();
+    }
+
+    public static synchronized ReleaseCatalog getInstance() {
+        if (instance == null) {
+            String catalogDir = InspectionController.getReleaseCatalogDir();
+            instance = new ReleaseCatalog(catalogDir.isEmpty() ? null : Path.of(catalogDir),
+                    TimeUnit.HOURS.toMillis(InspectionController.getJiraCacheTtlHours()),
+                    InspectionController.isJiraOffline());
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the releases of a project: released, not archived and with a release date, ordered by date
+     * @param projName name of the project on JIRA
+     * @return copies of the releases, with their index (empty if the versions cannot be retrieved)
+     */
+    public List<Release> getReleases(String projName) {
+        /* the same project may be requested to different JIRA servers (e.g. a local stand-in) */
+        String url = InspectionController.getJiraBaseUrl() + "/rest/api/2/project/" + projName;
+        List<Release> catalog = releases.get(url);
+        if (catalog == null) {
+            synchronized (locks.computeIfAbsent(url, u -> new Object())) {
+                catalog = releases.get(url);
+                if (catalog == null) {
+                    catalog = load(projName, url);
+                    releases.put(url, catalog);
+                }
+            }
+        }
+        List<Release> copies = new ArrayList<>(catalog.size());
+        for (Release release : catalog) {
+            Release copy = new Release(release.getId(), release.getName(), release.getDate());
+            copy.setIndex(release.getIndex());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /* from the snapshot when fresh, otherwise from JIRA (the snapshot is written again) */
+    private List<Release> load(String projName, String url) {
+        Path snapshot = dir == null ? null : dir.resolve(projName + SUFFIX);
+        if (snapshot != null && isFresh(snapshot)) {
+            try {
+                return readSnapshot(snapshot, url);
+            } catch (IOException | RuntimeException e) {
+                Logger.getGlobal().log(Level.WARNING, "Release snapshot of " + projName + " not used (" + e.getMessage()
+                        + "): requesting again");
+            }
+        }
+
+        List<Release> versions = new ArrayList<>();
+        try {
+            versions = fromJson(Parser.getInstance().readJsonFromUrl(url));
+            if (snapshot != null) writeSnapshot(snapshot, url, versions);
+        } catch (JSONException | IOException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+        }
+        return versions;
+    }
+
+    private boolean isFresh(Path snapshot) {
+        if (!Files.exists(snapshot)) return false;
+        if (offline || ttlMillis == 0) return true;
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(snapshot).toMillis() <= ttlMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the releases from the response to a JIRA project request
+     * @param json the project
+     * @return the releases released, not archived and with a release date, ordered by date and indexed
+     * @throws JSONException the project has no versions
+     */
+    public static List<Release> fromJson(JSONObject json) throws JSONException {
+        //Fills the arraylist with releases dates and orders them
+        //Ignores releases with missing dates
+        List<Release> versions = new ArrayList<>();
+        JSONArray jsonReleases = json.getJSONArray("versions");
+        for (int i = 0; i < jsonReleases.length(); i++ ) {
+            JSONObject jsonRelease = jsonReleases.getJSONObject(i);
+            String relName = "";
+            String relId = "";
+
+            /* Select only the releases with a date */
+            if (!jsonRelease.has("releaseDate")) continue;
+            /* Select only the releases with a name */
+            if (jsonRelease.has("name")) relName = jsonRelease.get("name").toString();
+            /* Select only the releases with a id */
+            if (jsonRelease.has("id")) relId = jsonRelease.get("id").toString();
+
+            /* Select only RELEASED and NOT ARCHIVED */
+            boolean released = Boolean.parseBoolean(jsonRelease.get("released").toString());
+            boolean archived = Boolean.parseBoolean(jsonRelease.get("archived").toString());
+            if (released && !archived) {
+                versions.add(new Release(relId, relName,
+                        Parser.getInstance().parseDateToLocalDateTime(jsonRelease.get("releaseDate").toString())));
+            }
+        }
+        /* order releases by date */
+        versions.sort(Comparator.comparing(Release::getDate));
+
+        /* set index numbers to the releases */
+        Release.setIndexNumbers(versions);
+        return versions;
+    }
+
+    private static List<Release> readSnapshot(Path snapshot, String url) throws IOException {
+        List<Release> versions = new ArrayList<>();
+        try (BufferedReader input = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            if (!VERSION.equals(input.readLine())) throw new IOException("Release snapshot of another version: " + snapshot);
+            /* the same project name on another server (e.g. a local stand-in) has other releases */
+            if (!(SOURCE + url).equals(input.readLine())) throw new IOException("Release snapshot of another server: " + snapshot);
+            String line;
+            while ((line = input.readLine()) != null) {
+                /* index, id, date, name (last: it may contain tabs) */
+                String[] fields = line.split("\t", 4);
+                Release release = new Release(fields[1], fields[3], Parser.getInstance().parseDateToLocalDateTime(fields[2]));
+                release.setIndex(Integer.parseInt(fields[0]));
+                versions.add(release);
+            }
+        }
+        return versions;
+    }
+
+    private static void writeSnapshot(Path snapshot, String url, List<Release> versions) throws IOException {
+        Files.createDirectories(snapshot.toAbsolutePath().getParent());
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (BufferedWriter output = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            output.write(VERSION);
+            output.newLine();
+            output.write(SOURCE + url);
+            output.newLine();
+            for (Release release : versions) {
+                output.write(String.join("\t", String.valueOf(release.getIndex()), release.getId(),
+                        Parser.getInstance().parseLocalDateToString(release.getDate()),
+                        release.getName().replace("\n", " ").replace("\r", " ")));
+                output.newLine();
+            }
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
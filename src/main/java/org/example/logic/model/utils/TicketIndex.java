@@ -0,0 +1,80 @@
+package org.example.logic.model.utils;
+
+import org.example.logic.model.keyabstractions.Commit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the ticket references in the commit messages, built with one pass on each message.
+ * A commit references a ticket "PROJ-123" when its message contains the key followed by ':', ']' or ' '
+ * (e.g. "PROJ-123: fix", "[PROJ-123] fix", "PROJ-123 fix"); a message can reference several tickets.
+ * References are indexed by number ("-123"), the project part of the key is checked on lookup.
+ */
+public class TicketIndex {
+
+    private final Map<String, List<Reference>> references; // "-<number>" -> references, in commit order
+
+    /**
+     * @param commits the commits of the project, in order
+     */
+    public TicketIndex(List<Commit> commits) {
+        this.references = new HashMap<>();
+        for (Commit commit : commits) {
+            tokenize(commit);
+        }
+    }
+
+    /* every '-' followed by digits and by a delimiter is a possible reference */
+    private void tokenize(Commit commit) {
+        String message = commit.getMessage();
+        if (message == null) return;
+        int length = message.length();
+        for (int dash = message.indexOf('-'); dash >= 0; dash = message.indexOf('-', dash + 1)) {
+            int end = dash + 1;
+            while (end < length && Character.isDigit(message.charAt(end))) end++;
+            if (end == dash + 1 || end == length || !isDelimiter(message.charAt(end))) continue;
+            references.computeIfAbsent(message.substring(dash, end), n -> new ArrayList<>()).add(new Reference(commit, dash));
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ':' || c == ']' || c == ' ';
+    }
+
+    /**
+     * Finds the commits that reference a ticket
+     * @param issueKey the key of the ticket, e.g. "PROJ-123"
+     * @return the commits, in order, each one once
+     */
+    public List<Commit> commitsOf(String issueKey) {
+        List<Commit> commits = new ArrayList<>();
+        int dash = issueKey.lastIndexOf('-');
+        if (dash < 0) return commits;
+        String project = issueKey.substring(0, dash);
+        for (Reference reference : references.getOrDefault(issueKey.substring(dash), List.of())) {
+            int start = reference.dash - project.length();
+            boolean matches = start >= 0 && reference.commit.getMessage().startsWith(project, start);
+            /* references of the same commit are adjacent */
+            boolean added = !commits.isEmpty() && commits.get(commits.size() - 1) == reference.commit;
+            if (matches && !added) commits.add(reference.commit);
+        }
+        return commits;
+    }
+
+    /**
+     * A possible reference: position of the '-' of the key in the message of a commit
+     */
+    private static class Reference {
+
+        private final Commit commit;
+        private final int dash;
+
+        Reference(Commit commit, int dash) {
+            this.commit = commit;
+            this.dash = dash;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.logic.model.utils;
+
+import org.example.logic.model.handlers.JiraSearchDecoder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On disk store of the fixed tickets of a project, with the time of the last sync with JIRA (the watermark).
+ * After the first full download, only the tickets updated since the watermark are requested and merged:
+ * tickets still fixed are added or replaced, the others (reopened, type changed) are removed.
+ * Tickets are kept in the order of a JIRA search: by key, most recent first.
+ * A store written with another format version is ignored.
+ */
+public class TicketStore {
+
+    private static final String VERSION = "# ticket store v1";
+
+    private final Path file;
+    private final Map<String, JiraSearchDecoder.Ticket> tickets; // key -> ticket
+    private Instant watermark;
+
+    /**
+     * @param file the file of the store
+     */
+    public TicketStore(Path file) {
+        this.file = file;
+        this.tickets = new TreeMap<>(Comparator.comparingLong(TicketStore::keyNumber).reversed()
+                .thenComparing(Comparator.reverseOrder()));
+    }
+
+    /**
+     * Loads the store. A store written with another format version (or unreadable) is ignored
+     */
+    public void load() {
+        tickets.clear();
+        watermark = null;
+        if (!Files.exists(file)) return;
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!VERSION.equals(input.readLine())) {
+                Logger.getGlobal().log(Level.WARNING, "Ticket store written with another version: downloading again");
+                return;
+            }
+            Instant mark = Instant.parse(input.readLine());
+            String line;
+            while ((line = input.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                put(new JiraSearchDecoder.Ticket(fields[0], fields[1], fields[2], emptyToNull(fields[3]),
+                        readVersions(fields[4]), readVersions(fields[5])));
+            }
+            watermark = mark;
+        } catch (IOException | RuntimeException e) {
+            Logger.getGlobal().log(Level.SEVERE, e.getMessage());
+            e.printStackTrace();
+            tickets.clear();
+        }
+    }
+
+    /**
+     * @return time of the last sync, null if the store is empty
+     */
+    public Instant getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * @return the tickets, most recent key first
+     */
+    public List<JiraSearchDecoder.Ticket> getTickets() {
+        return new ArrayList<>(tickets.values());
+    }
+
+    /**
+     * Replaces the content of the store with a full download
+     * @param fixed the fixed tickets
+     */
+    public void replace(List<JiraSearchDecoder.Ticket> fixed) {
+        tickets.clear();
+        fixed.forEach(this::put);
+    }
+
+    /**
+     * Merges the tickets updated since the watermark
+     * @param updated the tickets updated
+     * @param type the issue type of the store
+     * @return number of tickets added or replaced
+     */
+    public int merge(List<JiraSearchDecoder.Ticket> updated, String type) {
+        int merged = 0;
+        for (JiraSearchDecoder.Ticket ticket : updated) {
+            if (isFixed(ticket, type)) {
+                put(ticket);
+                merged++;
+            } else {
+                tickets.remove(ticket.getKey());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Checks that a ticket is still selected by the search of the fixed tickets of a type
+     * @param ticket the ticket, with type, status and resolution
+     * @param type the issue type
+     * @return true if the ticket is of the type, closed or resolved, and fixed
+     */
+    public static boolean isFixed(JiraSearchDecoder.Ticket ticket, String type) {
+        return type.equalsIgnoreCase(ticket.getType())
+                && ("closed".equalsIgnoreCase(ticket.getStatus()) || "resolved".equalsIgnoreCase(ticket.getStatus()))
+                && "fixed".equalsIgnoreCase(ticket.getResolution())
+                && ticket.getResolutionDate() != null;
+    }
+
+    private void put(JiraSearchDecoder.Ticket ticket) {
+        tickets.put(ticket.getKey(), ticket);
+    }
+
+    /**
+     * Writes the store with a new watermark, replacing the file only when it is completely written
+     * @param mark time of the sync
+     * @throws IOException error writing the store
+     */
+    public void save(Instant mark) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter output = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            output.write(VERSION);
+            output.newLine();
+            output.write(mark.toString());
+            output.newLine();
+            for (JiraSearchDecoder.Ticket ticket : tickets.values()) {
+                output.write(String.join("\t", ticket.getKey(), ticket.getId(), ticket.getCreated(),
+                        nullToEmpty(ticket.getResolutionDate()),
+                        writeVersions(ticket.getAffectedVersions()), writeVersions(ticket.getFixVersions())));
+                output.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        watermark = mark;
+    }
+
+    /* versions are separated by ',', their fields (id, release date, released) by '|' */
+    private static String writeVersions(List<JiraSearchDecoder.Version> versions) {
+        List<String> values = new ArrayList<>(versions.size());
+        for (JiraSearchDecoder.Version version : versions) {
+            values.add(nullToEmpty(version.getId()) + "|" + nullToEmpty(version.getReleaseDate()) + "|" + version.isReleased());
+        }
+        return String.join(",", values);
+    }
+
+    private static List<JiraSearchDecoder.Version> readVersions(String value) {
+        List<JiraSearchDecoder.Version> versions = new ArrayList<>();
+        if (value.isEmpty()) return versions;
+        for (String version : value.split(",")) {
+            String[] fields = version.split("\\|", -1);
+            versions.add(new JiraSearchDecoder.Version(emptyToNull(fields[0]), emptyToNull(fields[1]),
+                    Boolean.parseBoolean(fields[2])));
+        }
+        return versions;
+    }
+
+    /* number of a key "PROJ-123", -1 if it has no number */
+    private static long keyNumber(String key) {
+        try {
+            return Long.parseLong(key.substring(key.lastIndexOf('-') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import org.example.logic.model.utils.BlobCache;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the blob cache.
+ */
+public class BlobCacheTest {
+
+    @Test
+    public void testHitsAndMisses() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        BlobCache<String> cache = new BlobCache<>(1000, String::length);
+        BlobCache.Loader<String> loader = ids -> {
+            loads.addAndGet(ids.size());
+            List<String> values = new ArrayList<>();
+            ids.forEach(id -> values.add("content-" + id));
+            return values;
+        };
+
+        assertEquals(Arrays.asList("content-a", "content-b", "content-a"), cache.getAll(Arrays.asList("a", "b", "a"), loader));
+        assertEquals(Arrays.asList("content-b"), cache.getAll(List.of("b"), loader));
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        BlobCache<String> cache = new BlobCache<>(10, String::length);
+        BlobCache.Loader<String> loader = ids -> {
+            List<String> values = new ArrayList<>();
+            ids.forEach(id -> values.add("xxxx"));
+            return values;
+        };
+
+        cache.getAll(Arrays.asList("a", "b"), loader);
+        cache.getAll(List.of("a"), loader); // "b" becomes the least recently used
+        cache.getAll(List.of("c"), loader);
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getWeight() <= 10);
+
+        cache.getAll(List.of("a"), loader);
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlobCache<String> cache = new BlobCache<>(1000, String::length);
+        BlobCache.Loader<String> loader = ids -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of("shared");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> first = executor.submit(() -> cache.getAll(List.of("a"), loader));
+            loading.await(5, TimeUnit.SECONDS);
+            Future<List<String>> second = executor.submit(() -> cache.getAll(List.of("a"), loader));
+            Thread.sleep(50);
+            release.countDown();
+            assertEquals(List.of("shared"), first.get());
+            assertEquals(List.of("shared"), second.get());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.example.logic.model.handlers.GitHandler;
+import org.example.logic.model.keyabstractions.FileChange;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the parsing of the raw and numstat lines printed by "git show" (output of git 2.39).
+ */
+public class ChangeParserTest {
+
+    @Test
+    public void testChangeTypes() throws IOException {
+        List<FileChange> changes = parse(
+                "ac1b8bcd29658b7280f6f82f8c762cdaa7fabc6c<ac1b8bc<2026-10-17<MES=c2<AUTHOR=a",
+                "",
+                ":000000 100644 0000000 88768ef A\tBin.java",
+                ":100644 000000 40416ad 0000000 D\tD.java",
+                ":100644 100644 9e96b6f 4d61c25 M\tM.java",
+                ":000000 100644 0000000 2412d89 A\tN.java",
+                ":100644 100644 44157ff 44157ff R100\tsrc/a/A.java\tsrc/a/B.java",
+                "-\t-\tBin.java",
+                "0\t1\tD.java",
+                "1\t1\tM.java",
+                "1\t0\tN.java",
+                "0\t0\tsrc/a/{A.java => B.java}");
+        assertEquals(5, changes.size());
+
+        /* binary file: no line counts */
+        assertChange(changes.get(0), FileChange.Type.ADDED, "Bin.java", "Bin.java", null, "88768ef", 0, 0);
+        assertChange(changes.get(1), FileChange.Type.DELETED, "D.java", "D.java", "40416ad", null, 0, 1);
+        assertChange(changes.get(2), FileChange.Type.MODIFIED, "M.java", "M.java", "9e96b6f", "4d61c25", 1, 1);
+        assertChange(changes.get(3), FileChange.Type.ADDED, "N.java", "N.java", null, "2412d89", 1, 0);
+        assertChange(changes.get(4), FileChange.Type.RENAMED, "src/a/A.java", "src/a/B.java", "44157ff", "44157ff", 0, 0);
+    }
+
+    @Test
+    public void testMergeCombinedDiff() throws IOException {
+        /* combined diff: the "::" line is not paired, the paths come from the numstat line */
+        List<FileChange> changes = parse(
+                "6d0c9405e3d78a2bc7ee7d42ff90eb638664e7de<6d0c940",
+                "",
+                "1\t1\tM.java",
+                "::100644 100644 100644 2dd6a9b d256109 abf4e23 MM\tM.java");
+        assertEquals(1, changes.size());
+        assertChange(changes.get(0), FileChange.Type.MODIFIED, "M.java", "M.java", null, null, 1, 1);
+    }
+
+    @Test
+    public void testMergeFirstParent() throws IOException {
+        List<FileChange> changes = parse(
+                "6d0c9405e3d78a2bc7ee7d42ff90eb638664e7de<6d0c940",
+                "",
+                ":100644 100644 2dd6a9b abf4e23 M\tM.java",
+                "1\t1\tM.java");
+        assertEquals(1, changes.size());
+        assertChange(changes.get(0), FileChange.Type.MODIFIED, "M.java", "M.java", "2dd6a9b", "abf4e23", 1, 1);
+    }
+
+    @Test
+    public void testRenameWithoutRawLine() throws IOException {
+        List<FileChange> changes = parse("3\t2\tsrc/{a => b}/A.java", "4\t0\tREADME.md");
+        assertEquals(1, changes.size());
+        assertChange(changes.get(0), FileChange.Type.RENAMED, "src/a/A.java", "src/b/A.java", null, null, 3, 2);
+    }
+
+    private static List<FileChange> parse(String... lines) throws IOException {
+        return GitHandler.parseChanges(new BufferedReader(new StringReader(String.join("\n", lines))));
+    }
+
+    private static void assertChange(FileChange change, FileChange.Type type, String oldPath, String path,
+                                     String oldBlobId, String blobId, int additions, int deletions) {
+        assertEquals(type, change.getType());
+        assertEquals(oldPath, change.getOldPath());
+        assertEquals(path, change.getPath());
+        assertEquals(oldBlobId, change.getOldBlobId());
+        assertEquals(blobId, change.getBlobId());
+        assertEquals(additions, change.getAdditions());
+        assertEquals(deletions, change.getDeletions());
+    }
+}
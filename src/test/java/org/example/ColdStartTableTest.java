@@ -0,0 +1,51 @@
+package org.example;
+
+import org.example.logic.model.utils.ColdStartTable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit test for the table of the cold start proportion.
+ */
+public class ColdStartTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNewestDataIsUsed() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cold_start.tsv");
+        ColdStartTable table = new ColdStartTable(file);
+        table.put(new ColdStartTable.Entry("AVRO", "2021-05-01T10:00:00", 0.25, 40));
+        table.put(new ColdStartTable.Entry("AVRO", "2022-01-03T08:30:00", 0.5, 42));
+        table.put(new ColdStartTable.Entry("TEZ", "2020-02-02T00:00:00", 1.0 / 3, 7));
+        table.save();
+
+        /* a later run */
+        ColdStartTable loaded = new ColdStartTable(file);
+        loaded.load();
+        assertEquals(0.5, loaded.latest("AVRO").getAverage(), 0);
+        assertEquals(42, loaded.latest("AVRO").getIssues());
+        assertEquals(1.0 / 3, loaded.latest("TEZ").getAverage(), 0);
+        assertNull(loaded.latest("IVY"));
+    }
+
+    @Test
+    public void testOtherVersionIsIgnored() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cold_start.tsv");
+        Files.write(file, List.of("# cold start proportion v0", "AVRO\t2021-05-01T10:00:00\t0.25\t40"), StandardCharsets.UTF_8);
+        ColdStartTable table = new ColdStartTable(file);
+        table.load();
+        assertNull(table.latest("AVRO"));
+    }
+}
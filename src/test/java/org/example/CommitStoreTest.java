@@ -0,0 +1,139 @@
+package org.example;
+
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.handlers.GitHandler;
+import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.FileChange;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.utils.CommitStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the store of the mined commits.
+ */
+public class CommitStoreTest {
+
+    private static final String SETTINGS = "history_mode=full;rename_score=50";
+    private static final String SHA_A = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+    private static final String SHA_B = "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Project project = new Project("");
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File dir = folder.getRoot();
+        CommitStore store = new CommitStore(dir, "PROJ", SETTINGS);
+        store.load();
+        assertNull(store.getMark());
+
+        FileChange renamed = new FileChange(FileChange.Type.RENAMED, "src/a\tb/A.java", "src/a\\b/B.java",
+                "1111111111111111111111111111111111111111", "2222222222222222222222222222222222222222", 3, 1);
+        FileChange deleted = new FileChange(FileChange.Type.DELETED, "src/C.java", "src/C.java",
+                "3333333333333333333333333333333333333333", null, 0, 12);
+        store.append(List.of(mined(SHA_A, "PROJ-1 fix\ttabs\nand lines\r\n", List.of(renamed, deleted),
+                List.of(new LocCount(40, 30, 6, 4), LocCount.EMPTY))), SHA_A);
+
+        /* a later run */
+        CommitStore loaded = new CommitStore(dir, "PROJ", SETTINGS);
+        loaded.load();
+        assertEquals(SHA_A, loaded.getMark());
+        assertTrue(loaded.contains(SHA_A));
+        Commit commit = loaded.restoreCommit(project, SHA_A);
+        assertEquals(SHA_A, commit.getFullShaId());
+        assertEquals("aaaaaaa", commit.getShaId());
+        assertEquals("PROJ-1 fix\ttabs\nand lines\r\n", commit.getMessage());
+        assertEquals("Ann\tO'Brien", commit.getAuthor());
+        assertEquals(LocalDateTime.of(2021, 3, 4, 0, 0), commit.getDate());
+
+        List<FileChange> changes = commit.getChanges();
+        assertEquals(2, changes.size());
+        assertChange(renamed, changes.get(0));
+        assertChange(deleted, changes.get(1));
+        assertNull(changes.get(1).getBlobId());
+        List<LocCount> locCounts = loaded.getLocCounts(SHA_A);
+        assertEquals(40, locCounts.get(0).getLines());
+        assertEquals(30, locCounts.get(0).getSize());
+        assertEquals(6, locCounts.get(0).getCommentLines());
+        assertEquals(4, locCounts.get(0).getBlankLines());
+        assertEquals(0, locCounts.get(1).getLines());
+    }
+
+    @Test
+    public void testStoredCommitsNotAppendedTwice() throws IOException {
+        File dir = folder.getRoot();
+        CommitStore store = new CommitStore(dir, "PROJ", SETTINGS);
+        store.load();
+        store.append(List.of(mined(SHA_A, "first", List.of(), List.of())), SHA_A);
+
+        /* the mark was rewritten away: the whole history is mined again */
+        CommitStore loaded = new CommitStore(dir, "PROJ", SETTINGS);
+        loaded.load();
+        loaded.append(List.of(mined(SHA_A, "first", List.of(), List.of()),
+                mined(SHA_B, "second", List.of(), List.of())), SHA_B);
+
+        assertEquals(2, commitRecords(dir));
+        loaded.load();
+        assertEquals(2, loaded.size());
+        assertEquals(SHA_B, loaded.getMark());
+    }
+
+    @Test
+    public void testSettingsChangeDiscardsStore() throws IOException {
+        File dir = folder.getRoot();
+        CommitStore store = new CommitStore(dir, "PROJ", SETTINGS);
+        store.load();
+        store.append(List.of(mined(SHA_A, "first", List.of(), List.of())), SHA_A);
+
+        CommitStore changed = new CommitStore(dir, "PROJ", SETTINGS + ";rename_limit=10");
+        changed.load();
+        assertNull(changed.getMark());
+        assertFalse(changed.contains(SHA_A));
+
+        /* the store written with the old settings is replaced */
+        changed.append(List.of(mined(SHA_B, "second", List.of(), List.of())), SHA_B);
+        assertEquals(1, commitRecords(dir));
+        changed.load();
+        assertTrue(changed.contains(SHA_B));
+        assertFalse(changed.contains(SHA_A));
+    }
+
+    private GitHandler.MinedCommit mined(String fullSha, String message, List<FileChange> changes,
+                                         List<LocCount> locCounts) {
+        Commit commit = new Commit(project, fullSha.substring(0, 7), message,
+                LocalDateTime.of(2021, 3, 4, 15, 30), "Ann\tO'Brien");
+        commit.setFullShaId(fullSha);
+        return new GitHandler.MinedCommit(commit, changes, locCounts);
+    }
+
+    private static void assertChange(FileChange expected, FileChange actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getOldPath(), actual.getOldPath());
+        assertEquals(expected.getPath(), actual.getPath());
+        assertEquals(expected.getOldBlobId(), actual.getOldBlobId());
+        assertEquals(expected.getBlobId(), actual.getBlobId());
+        assertEquals(expected.getAdditions(), actual.getAdditions());
+        assertEquals(expected.getDeletions(), actual.getDeletions());
+    }
+
+    private static long commitRecords(File dir) throws IOException {
+        return Files.readAllLines(new File(dir, "PROJ.commits").toPath(), StandardCharsets.UTF_8).stream()
+                .filter(line -> line.startsWith("C\t")).count();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.keyabstractions.Release;
+import org.example.logic.model.keyabstractions.ReleaseTimeline;
+import org.example.logic.model.proportion.EstimatorComparison;
+import org.example.logic.model.proportion.IncrementalEstimator;
+import org.example.logic.model.proportion.InjectedVersionEstimator;
+import org.example.logic.model.proportion.IssueTable;
+import org.example.logic.model.proportion.MovingWindowEstimator;
+import org.example.logic.model.proportion.MovingWindowProportion;
+import org.example.logic.model.proportion.ProportionEstimate;
+import org.example.logic.model.proportion.SimpleEstimator;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the injected version estimators, against the proportion calculated on each issue.
+ */
+public class InjectedVersionEstimatorTest {
+
+    private static final int BUGS = 600;
+    private static final double COLD = 0.3;
+
+    private final Project project = new Project("");
+    private final List<Release> releases = ReleaseFixtures.daily(20);
+    private final Set<Issue> toEstimate = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Test
+    public void testMovingWindowSameAsPerIssue() {
+        List<Issue> bugs = bugs();
+        IssueTable table = IssueTable.of(bugs, toEstimate::contains);
+        ProportionEstimate estimate = new MovingWindowEstimator(COLD).estimate(table);
+
+        /* each issue to estimate is labeled before the next one, as the proportion method does */
+        MovingWindowProportion window = new MovingWindowProportion(bugs);
+        for (int i = 0; i < bugs.size(); i++) {
+            Issue bug = bugs.get(i);
+            if (!toEstimate.contains(bug)) continue;
+            double p = window.estimate(bug, table.getOpening(i), table.getFix(i));
+            int injV = table.injectedVersion(i, p);
+            for (int v = injV; v <= table.getFix(i); v++) bug.addAffected(releases.get(v - 1));
+            assertEquals(p, estimate.getP(i), 0);
+            assertEquals(injV, estimate.getInjected(i));
+        }
+    }
+
+    @Test
+    public void testIncrementalSameAsScan() {
+        IssueTable table = IssueTable.of(bugs(), toEstimate::contains);
+        ProportionEstimate estimate = new IncrementalEstimator(COLD).estimate(table);
+        for (int i = 0; i < table.size(); i++) {
+            if (!table.isEstimated(i)) continue;
+            /* average P of the issues with an IV fixed before */
+            double sum = 0;
+            int known = 0;
+            for (int j = 0; j < i; j++) {
+                if (table.isEstimated(j)) continue;
+                int fixedV = table.getFix(j);
+                int openV = table.getOpening(j);
+                sum += fixedV == openV ? 1 : (double) (fixedV - table.getInjected(j)) / (fixedV - openV);
+                known++;
+            }
+            double p = known == 0 ? COLD : sum / known;
+            assertEquals(p, estimate.getP(i), 1e-12);
+            assertEquals(table.injectedVersion(i, p), estimate.getInjected(i));
+        }
+    }
+
+    @Test
+    public void testComparison() {
+        List<Issue> bugs = bugs();
+        IssueTable table = IssueTable.of(bugs, toEstimate::contains);
+        new SimpleEstimator().estimate(table).apply(bugs, new ReleaseTimeline(releases, releases.size()));
+        int[] labeling = new int[bugs.size()];
+        for (int i = 0; i < bugs.size(); i++) {
+            labeling[i] = IssueTable.firstAffected(bugs.get(i));
+            assertEquals(table.isEstimated(i) ? table.getOpening(i) : table.getInjected(i), labeling[i]);
+        }
+
+        List<EstimatorComparison.Row> rows = EstimatorComparison.compare(table, labeling, InjectedVersionEstimator.all(COLD));
+        assertEquals(4, rows.size());
+        for (EstimatorComparison.Row row : rows) {
+            assertEquals(toEstimate.size(), row.getEstimated());
+            if (row.getEstimator().equals("simple")) {
+                assertEquals(0, row.getChangedLabels());
+                assertEquals(1, row.getAverageP(), 0);
+            }
+        }
+    }
+
+    /* bugs ordered by fixed version, one in three without affected versions */
+    private List<Issue> bugs() {
+        Random random = new Random(11);
+        List<Issue> bugs = new ArrayList<>();
+        toEstimate.clear();
+        for (int i = 0; i < BUGS; i++) {
+            Issue bug = new Issue(project, "B-" + i, String.valueOf(i), null, null);
+            int fixedV = 1 + i * releases.size() / BUGS;
+            int openV = 1 + random.nextInt(fixedV);
+            bug.setOpVersion(releases.get(openV - 1));
+            bug.setFixedVersions(new ArrayList<>(List.of(releases.get(fixedV - 1))));
+            if (random.nextInt(3) == 0) {
+                toEstimate.add(bug);
+            } else {
+                bug.addAffected(releases.get(random.nextInt(openV)));
+            }
+            bugs.add(bug);
+        }
+        return bugs;
+    }
+}
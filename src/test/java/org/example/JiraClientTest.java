@@ -0,0 +1,168 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.logic.model.handlers.JiraClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the JIRA client, against a local HTTP server.
+ */
+public class JiraClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/flaky", exchange -> {
+            if (failuresLeft.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = gzip("{\"ok\":true}");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.createContext("/stalled", exchange -> {
+            /* the headers and part of the body, then nothing */
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream output = exchange.getResponseBody();
+            output.write("{\"issues\":[".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRetriesAndDecompresses() throws IOException {
+        failuresLeft.set(2);
+        JiraClient client = new JiraClient(4, 10, 3, 10);
+        assertEquals("{\"ok\":true}", read(client.fetch(baseUrl + "/flaky")));
+        assertEquals(2, client.getRetries());
+        assertEquals(3, client.getRequests());
+        assertEquals(0, client.getFailures());
+    }
+
+    @Test(expected = IOException.class)
+    public void testGivesUpAfterRetries() throws IOException {
+        failuresLeft.set(10);
+        new JiraClient(4, 10, 2, 10).fetch(baseUrl + "/flaky");
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        JiraClient client = new JiraClient(4, 10, 3, 10);
+        try {
+            client.fetch(baseUrl + "/missing");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("404"));
+        }
+        assertEquals(0, client.getRetries());
+        assertEquals(1, client.getFailures());
+    }
+
+    @Test
+    public void testRequestsInFlightPerHost() throws Exception {
+        JiraClient client = new JiraClient(2, 10, 0, 10);
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(client.fetchAsync(baseUrl + "/slow?page=" + i).thenApply(JiraClientTest::readUnchecked));
+        }
+        for (CompletableFuture<String> response : responses) {
+            assertEquals("{}", response.get());
+        }
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void testStalledBodyTimesOutAndFreesSlot() throws IOException {
+        JiraClient client = new JiraClient(1, 1, 0, 10);
+        try {
+            client.fetch(baseUrl + "/stalled");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("not received in time"));
+        }
+        assertEquals(1, client.getFailures());
+        /* the only slot of the host is free again */
+        assertEquals("{}", read(client.fetch(baseUrl + "/slow")));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(bytes)) {
+            output.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try (InputStream body = input) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String readUnchecked(InputStream input) {
+        try {
+            return read(input);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.handlers.JIRAHandler;
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.keyabstractions.Release;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the retrieval of the issues of a project, against the recorded responses served by the
+ * JIRA stand-in.
+ */
+public class JiraHandlerTest {
+
+    private JiraStubServer stub;
+
+    @Before
+    public void startStub() throws IOException {
+        stub = JiraStubServer.withFixtures("STUB");
+        Properties prop = new Properties();
+        prop.setProperty("jira_base_url", stub.getBaseUrl());
+        InspectionController.configure(prop);
+    }
+
+    @After
+    public void stopStub() {
+        Properties prop = new Properties();
+        prop.setProperty("jira_base_url", "https://issues.apache.org/jira");
+        InspectionController.configure(prop);
+        stub.close();
+    }
+
+    @Test
+    public void testPagedSearchWithFailures() throws IOException {
+        /* the server returns pages shorter than asked, and fails some requests */
+        stub.setMaxResults(5);
+        stub.setFailEvery(4);
+        Project project = new Project("STUB", 100, "");
+        assertEquals(5, project.getVersions().size());
+
+        List<Issue> issues = new JIRAHandler(project).retrieveProjectIssues("Bug");
+        JSONArray recorded = recordedIssues();
+        assertEquals(recorded.length(), issues.size());
+        for (int i = 0; i < recorded.length(); i++) {
+            JSONObject fields = recorded.getJSONObject(i).getJSONObject("fields");
+            assertEquals(recorded.getJSONObject(i).getString("key"), issues.get(i).getKey());
+            assertEquals(releasedNames(fields.getJSONArray("fixVersions")), names(issues.get(i).getFixedVersions()));
+            assertEquals(releasedNames(fields.getJSONArray("versions")), names(issues.get(i).getAffectedVersions()));
+        }
+        assertTrue(stub.getFailures() > 0);
+    }
+
+    @Test
+    public void testIssueAddedWhileSearching() throws IOException {
+        /* a new issue comes first: the later pages shift by one, the boundary issue comes back twice.
+           The new issue is not part of the search started before it (the next sync reads it) */
+        stub.setMaxResults(5);
+        JSONArray recorded = recordedIssues();
+        JSONArray changed = new JSONArray();
+        changed.put(new JSONObject(recorded.getJSONObject(0).toString()).put("key", "STUB-41").put("id", "99041"));
+        recorded.forEach(changed::put);
+        stub.changeIssuesAfter(1, "STUB", changed);
+
+        Project project = new Project("STUB", 100, "");
+        assertEquals(keys(recorded), issueKeys(new JIRAHandler(project).retrieveProjectIssues("Bug")));
+    }
+
+    @Test
+    public void testIssueRemovedWhileSearching() throws IOException {
+        /* an issue of the first page is removed: the later pages shift back by one, skipping an issue */
+        stub.setMaxResults(5);
+        JSONArray changed = recordedIssues();
+        changed.remove(2);
+        stub.changeIssuesAfter(1, "STUB", changed);
+
+        Project project = new Project("STUB", 100, "");
+        assertEquals(keys(changed), issueKeys(new JIRAHandler(project).retrieveProjectIssues("Bug")));
+    }
+
+    @Test
+    public void testVersionsOnTheSameDay() throws IOException {
+        /* two releases on the same day: each ticket gets the release of its version id */
+        stub.addSyntheticProject("SAME", List.of("2021-01-01", "2021-06-01", "2021-06-01"), 6);
+        Project project = new Project("SAME", 100, "");
+        List<Issue> issues = new JIRAHandler(project).retrieveProjectIssues("Bug");
+        assertEquals(6, issues.size());
+        for (Issue issue : issues) {
+            int n = Integer.parseInt(issue.getKey().substring("SAME-".length()));
+            /* fixed version of the synthetic issue n */
+            int fixed = Math.min(2, n % 3 + n % 3);
+            assertEquals(List.of("1." + fixed), names(issue.getFixedVersions()));
+        }
+    }
+
+    private static List<String> keys(JSONArray recorded) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < recorded.length(); i++) {
+            keys.add(recorded.getJSONObject(i).getString("key"));
+        }
+        return keys;
+    }
+
+    private static List<String> issueKeys(List<Issue> issues) {
+        return issues.stream().map(Issue::getKey).toList();
+    }
+
+    private static JSONArray recordedIssues() throws IOException {
+        try (InputStream input = JiraHandlerTest.class.getClassLoader().getResourceAsStream("jira/search/STUB.json")) {
+            return new JSONObject(new String(input.readAllBytes(), StandardCharsets.UTF_8)).getJSONArray("issues");
+        }
+    }
+
+    private static List<String> releasedNames(JSONArray versions) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < versions.length(); i++) {
+            if (versions.getJSONObject(i).getBoolean("released")) names.add(versions.getJSONObject(i).getString("name"));
+        }
+        return names;
+    }
+
+    private static List<String> names(List<Release> releases) {
+        return releases.stream().map(Release::getName).toList();
+    }
+}
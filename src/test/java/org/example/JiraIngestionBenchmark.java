@@ -0,0 +1,67 @@
+package org.example;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.handlers.JIRAHandler;
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Project;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark of the ingestion of the JIRA tickets against the local JIRA stand-in: tickets per second
+ * with a growing number of pages and of pages requested at the same time. Not run by the build (the class
+ * name does not end with Test): run it with mvn test -Dtest=JiraIngestionBenchmark;
+ * -Djira.bench.latency=&lt;ms&gt; sets the latency of each response (default 50).
+ */
+public class JiraIngestionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int[] PAGES = {1, 10, 50};
+    private static final int[] REQUESTS = {1, 2, 4, 8};
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void benchmarkIngestion() throws IOException {
+        long latency = Long.getLong("jira.bench.latency", 50);
+        List<String> releases = List.of("2019-01-15", "2019-06-01", "2020-01-10", "2020-07-20", "2021-02-01");
+
+        try (JiraStubServer stub = new JiraStubServer(16)) {
+            stub.setMaxResults(PAGE_SIZE);
+            stub.setLatencyMillis(latency);
+            System.out.printf("%-6s %-9s %-8s %10s %12s%n", "pages", "requests", "tickets", "ms", "tickets/s");
+            for (int pages : PAGES) {
+                String key = "BENCH" + pages;
+                stub.addSyntheticProject(key, releases, pages * PAGE_SIZE);
+                for (int requests : REQUESTS) {
+                    configure(stub.getBaseUrl(), requests);
+                    Project project = new Project(key, 100, "");
+                    long best = Long.MAX_VALUE;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        List<Issue> issues = new JIRAHandler(project).retrieveProjectIssues("Bug");
+                        best = Math.min(best, System.nanoTime() - start);
+                        assertEquals(pages * PAGE_SIZE, issues.size());
+                    }
+                    double millis = best / 1e6;
+                    System.out.printf("%-6d %-9d %-8d %10.1f %12.0f%n", pages, requests, pages * PAGE_SIZE,
+                            millis, pages * PAGE_SIZE / (millis / 1000));
+                }
+            }
+        } finally {
+            configure("https://issues.apache.org/jira", 4);
+        }
+    }
+
+    private static void configure(String baseUrl, int requests) {
+        Properties prop = new Properties();
+        prop.setProperty("jira_base_url", baseUrl);
+        prop.setProperty("jira_page_size", String.valueOf(PAGE_SIZE));
+        prop.setProperty("jira_max_requests", String.valueOf(requests));
+        InspectionController.configure(prop);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.logic.model.exceptions.CacheMissException;
+import org.example.logic.model.utils.JiraResponseCache;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the cache of the JIRA responses.
+ */
+public class JiraResponseCacheTest {
+
+    private static final String URL = "https://issues.apache.org/jira/rest/api/2/search?jql=project=X&startAt=0";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNormalize() {
+        assertEquals("https://issues.apache.org/jira/rest/api/2/search?a=1&b=2",
+                JiraResponseCache.normalize("HTTPS://Issues.Apache.org:443/jira/rest/api/2/search?b=2&a=1#top"));
+        assertEquals("http://localhost:8080/", JiraResponseCache.normalize("http://localhost:8080"));
+    }
+
+    @Test
+    public void testResponsesAreCached() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        JiraResponseCache.Fetcher fetcher = url -> body("{\"n\":" + requests.incrementAndGet() + "}");
+        JiraResponseCache cache = new JiraResponseCache(folder.getRoot().toPath(), TimeUnit.HOURS.toMillis(1), false);
+
+        assertEquals("{\"n\":1}", read(cache, URL, fetcher));
+        /* same request with the parameters in another order */
+        assertEquals("{\"n\":1}", read(cache, "https://issues.apache.org/jira/rest/api/2/search?startAt=0&jql=project=X", fetcher));
+        /* a new cache on the same directory (next run) */
+        assertEquals("{\"n\":1}", read(new JiraResponseCache(folder.getRoot().toPath(), 0, false), URL, fetcher));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testExpiredResponsesAreRequestedAgain() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        JiraResponseCache.Fetcher fetcher = url -> body("{\"n\":" + requests.incrementAndGet() + "}");
+        JiraResponseCache cache = new JiraResponseCache(folder.getRoot().toPath(), TimeUnit.HOURS.toMillis(1), false);
+        read(cache, URL, fetcher);
+        expireEntries();
+
+        assertEquals("{\"n\":2}", read(cache, URL, fetcher));
+        /* offline, expired responses are still served */
+        expireEntries();
+        assertEquals("{\"n\":2}", read(new JiraResponseCache(folder.getRoot().toPath(), TimeUnit.HOURS.toMillis(1), true), URL, fetcher));
+        assertEquals(2, requests.get());
+    }
+
+    @Test(expected = CacheMissException.class)
+    public void testOfflineMiss() throws IOException {
+        JiraResponseCache cache = new JiraResponseCache(folder.getRoot().toPath(), 0, true);
+        cache.open(URL, url -> {
+            throw new IOException("no network access expected");
+        });
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(JiraResponseCache cache, String url, JiraResponseCache.Fetcher fetcher) throws IOException {
+        try (InputStream input = cache.open(url, fetcher)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void expireEntries() throws IOException {
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        for (File entry : folder.getRoot().listFiles()) {
+            Files.setLastModifiedTime(entry.toPath(), old);
+        }
+    }
+}
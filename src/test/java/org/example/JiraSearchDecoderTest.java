@@ -0,0 +1,79 @@
+package org.example;
+
+import org.example.logic.model.handlers.JiraSearchDecoder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the streaming decoder of the JIRA search pages.
+ */
+public class JiraSearchDecoderTest {
+
+    private static final String PAGE = "{\"expand\":\"schema,names\",\"startAt\":0,\"maxResults\":1000,\"total\":2,"
+            + "\"issues\":[{\"expand\":\"operations\",\"id\":\"12345\",\"self\":\"https://x/12345\",\"key\":\"PROJ-1\","
+            + "\"fields\":{\"fixVersions\":[{\"self\":\"https://x/v/1\",\"id\":\"1\",\"name\":\"1.0\",\"archived\":false,"
+            + "\"released\":true,\"releaseDate\":\"2020-02-01\"},{\"id\":\"2\",\"name\":\"2.0\",\"released\":false,"
+            + "\"releaseDate\":\"2021-01-01\"}],\"resolutiondate\":\"2020-01-20T10:00:00.000+0000\",\"versions\":[],"
+            + "\"created\":\"2020-01-10T09:00:00.000+0000\",\"description\":{\"nested\":[1, 2.5e3, true, null, \"a \\\"q\\\" \\\\ \\u00e9 [ ] { } , :\"]}}},"
+            + " {\"id\" : \"12346\", \"key\" : \"PROJ-2\", \"fields\" : {\"created\" : \"2020-03-01T09:00:00.000+0000\","
+            + " \"resolutiondate\" : \"2020-04-01T09:00:00.000+0000\", \"versions\" : [ {\"released\" : true, \"releaseDate\" : \"2020-02-01\"},"
+            + " {\"released\" : true} ], \"fixVersions\" : [ ] } } ] }";
+
+    @Test
+    public void testDecodeLikeJsonObject() throws IOException {
+        JiraSearchDecoder.Page page = JiraSearchDecoder.decode(new StringReader(PAGE));
+
+        /* fields extracted as retrieveProjectIssues did with the whole JSON document */
+        JSONObject json = new JSONObject(PAGE);
+        JSONArray issues = json.getJSONArray("issues");
+        assertEquals(json.getInt("total"), page.getTotal());
+        assertEquals(issues.length(), page.getTickets().size());
+        for (int i = 0; i < issues.length(); i++) {
+            JSONObject fields = issues.getJSONObject(i).getJSONObject("fields");
+            JiraSearchDecoder.Ticket ticket = page.getTickets().get(i);
+            assertEquals(issues.getJSONObject(i).get("key").toString(), ticket.getKey());
+            assertEquals(issues.getJSONObject(i).getString("id"), ticket.getId());
+            assertEquals(fields.getString("created"), ticket.getCreated());
+            assertEquals(fields.getString("resolutiondate"), ticket.getResolutionDate());
+            assertEquals(releaseDates(fields.getJSONArray("versions")), releaseDates(ticket.getAffectedVersions()));
+            assertEquals(releaseDates(fields.getJSONArray("fixVersions")), releaseDates(ticket.getFixVersions()));
+        }
+    }
+
+    @Test
+    public void testEmptyPage() throws IOException {
+        JiraSearchDecoder.Page page = JiraSearchDecoder.decode(new StringReader("{\"total\":0,\"issues\":[]}"));
+        assertEquals(0, page.getTotal());
+        assertEquals(0, page.getTickets().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedPage() throws IOException {
+        JiraSearchDecoder.decode(new StringReader(PAGE.substring(0, PAGE.length() / 2)));
+    }
+
+    private static List<String> releaseDates(JSONArray versions) {
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < versions.length(); i++) {
+            JSONObject version = versions.getJSONObject(i);
+            if (version.optBoolean("released") && version.has("releaseDate")) dates.add(version.getString("releaseDate"));
+        }
+        return dates;
+    }
+
+    private static List<String> releaseDates(List<JiraSearchDecoder.Version> versions) {
+        List<String> dates = new ArrayList<>();
+        for (JiraSearchDecoder.Version version : versions) {
+            if (version.isReleased() && version.getReleaseDate() != null) dates.add(version.getReleaseDate());
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,274 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Loopback stand-in of the JIRA REST API: serves recorded (or synthetic) responses of
+ * /rest/api/2/project/&lt;key&gt; and /rest/api/2/search, paging the issues of a project like JIRA does
+ * (at most maxResults issues for each page, whatever the client asks). Latency and failures (503) can be injected.
+ */
+public class JiraStubServer implements AutoCloseable {
+
+    private static final Pattern JQL_PROJECT = Pattern.compile("project(?:=|%3D)(?:%22|\")([A-Za-z0-9_]+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> projects;
+    private final Map<String, JSONArray> issues;
+    private final AtomicInteger requests;
+    private final AtomicInteger failures;
+    private final AtomicInteger searches;
+    private volatile Change change; // change of the issues of a project, made while a search is being read
+    private volatile long latencyMillis;
+    private volatile int failEvery;
+    private volatile int maxResults;
+
+    /**
+     * @param threads requests served at the same time
+     * @throws IOException the server cannot be started
+     */
+    public JiraStubServer(int threads) throws IOException {
+        this.projects = new ConcurrentHashMap<>();
+        this.issues = new ConcurrentHashMap<>();
+        this.requests = new AtomicInteger();
+        this.failures = new AtomicInteger();
+        this.searches = new AtomicInteger();
+        this.maxResults = 1000;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/jira/rest/api/2/project/", this::serveProject);
+        server.createContext("/jira/rest/api/2/search", this::serveSearch);
+        server.start();
+    }
+
+    /**
+     * Starts a server with the recorded responses of some projects (jira/project/&lt;key&gt;.json and
+     * jira/search/&lt;key&gt;.json in the test resources)
+     * @param keys the project keys
+     * @return the server
+     * @throws IOException a recording cannot be read
+     */
+    public static JiraStubServer withFixtures(String... keys) throws IOException {
+        JiraStubServer stub = new JiraStubServer(8);
+        for (String key : keys) {
+            JSONObject search = new JSONObject(readResource("jira/search/" + key + ".json"));
+            stub.addProject(key, readResource("jira/project/" + key + ".json"), search.getJSONArray("issues"));
+        }
+        return stub;
+    }
+
+    /**
+     * Adds a project
+     * @param key the project key
+     * @param project the response to the project request
+     * @param projectIssues the issues returned by a search on the project, in order
+     */
+    public void addProject(String key, String project, JSONArray projectIssues) {
+        projects.put(key, project.getBytes(StandardCharsets.UTF_8));
+        issues.put(key, projectIssues);
+    }
+
+    /**
+     * Adds a synthetic project, with a release for each date and the issues fixed in them
+     * @param key the project key
+     * @param releaseDates the dates of the releases (yyyy-MM-dd), in order
+     * @param count the number of issues, keys in descending order as in a JIRA search
+     */
+    public void addSyntheticProject(String key, List<String> releaseDates, int count) {
+        JSONArray versions = new JSONArray();
+        for (int i = 0; i < releaseDates.size(); i++) {
+            versions.put(new JSONObject().put("id", String.valueOf(i + 1)).put("name", "1." + i)
+                    .put("released", true).put("archived", false).put("releaseDate", releaseDates.get(i)));
+        }
+        JSONArray projectIssues = new JSONArray();
+        for (int n = count; n > 0; n--) {
+            int opening = n % releaseDates.size();
+            int fixed = Math.min(releaseDates.size() - 1, opening + n % 3);
+            JSONArray affected = new JSONArray();
+            if (n % 2 == 0) affected.put(versions.getJSONObject(opening));
+            JSONObject fields = new JSONObject()
+                    .put("created", releaseDates.get(opening) + "T10:00:00.000+0000")
+                    .put("resolutiondate", releaseDates.get(fixed) + "T10:00:00.000+0000")
+                    .put("versions", affected)
+                    .put("fixVersions", new JSONArray().put(versions.getJSONObject(fixed)))
+                    .put("description", "synthetic issue " + n + " of " + key);
+            projectIssues.put(new JSONObject().put("id", String.valueOf(100000 + n)).put("key", key + "-" + n)
+                    .put("fields", fields));
+        }
+        addProject(key, new JSONObject().put("key", key).put("versions", versions).toString(), projectIssues);
+    }
+
+    /**
+     * @return the base URL to configure as jira_base_url
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/jira";
+    }
+
+    /**
+     * @param latencyMillis delay before each response, in milliseconds
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * @param failEvery every n-th request is answered with 503 (0 = no failures)
+     */
+    public void setFailEvery(int failEvery) {
+        this.failEvery = failEvery;
+    }
+
+    /**
+     * @param maxResults max issues of a page, whatever the client asks
+     */
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Replaces the issues of a project once some search pages have been served, as if issues were
+     * added or removed while a client is paging the search
+     * @param searches search pages served before the change
+     * @param key the project key
+     * @param projectIssues the issues returned by a search on the project after the change, in order
+     */
+    public void changeIssuesAfter(int searches, String key, JSONArray projectIssues) {
+        this.change = new Change(this.searches.get() + searches, key, projectIssues);
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void serveProject(HttpExchange exchange) throws IOException {
+        if (delayOrFail(exchange)) return;
+        String path = exchange.getRequestURI().getPath();
+        byte[] project = projects.get(path.substring(path.lastIndexOf('/') + 1));
+        if (project == null) {
+            respond(exchange, 404, "{\"errorMessages\":[\"No project could be found\"]}".getBytes(StandardCharsets.UTF_8));
+        } else {
+            respond(exchange, 200, project);
+        }
+    }
+
+    private void serveSearch(HttpExchange exchange) throws IOException {
+        if (delayOrFail(exchange)) return;
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        for (String param : query == null ? new String[0] : query.split("&")) {
+            int eq = param.indexOf('=');
+            if (eq > 0) params.put(param.substring(0, eq), param.substring(eq + 1));
+        }
+        Matcher matcher = JQL_PROJECT.matcher(params.getOrDefault("jql", ""));
+        JSONArray projectIssues = matcher.find() ? issues.get(matcher.group(1)) : null;
+        if (projectIssues == null) {
+            respond(exchange, 400, "{\"errorMessages\":[\"The value does not exist for the field 'project'.\"]}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        int startAt = Integer.parseInt(params.getOrDefault("startAt", "0"));
+        int pageSize = Math.min(maxResults, Integer.parseInt(params.getOrDefault("maxResults", "50")));
+        JSONArray page = new JSONArray();
+        for (int i = startAt; i < Math.min(projectIssues.length(), startAt + pageSize); i++) {
+            page.put(projectIssues.get(i));
+        }
+        JSONObject body = new JSONObject().put("expand", "schema,names").put("startAt", startAt)
+                .put("maxResults", pageSize).put("total", projectIssues.length()).put("issues", page);
+        /* the change is made before the page is sent, so that the next requests see it */
+        Change pending = change;
+        if (searches.incrementAndGet() == (pending != null ? pending.after : -1)) {
+            issues.put(pending.key, pending.projectIssues);
+            change = null;
+        }
+        respond(exchange, 200, body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* true if the request has been answered with a failure */
+    private boolean delayOrFail(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failEvery > 0 && request % failEvery == 0) {
+            failures.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return true;
+        }
+        return false;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accepted != null && accepted.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream output = new GZIPOutputStream(compressed)) {
+                output.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static String readResource(String name) throws IOException {
+        try (InputStream input = JiraStubServer.class.getClassLoader().getResourceAsStream(name)) {
+            if (input == null) throw new IOException("Missing fixture: " + name);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class Change {
+
+        private final int after;
+        private final String key;
+        private final JSONArray projectIssues;
+
+        Change(int after, String key, JSONArray projectIssues) {
+            this.after = after;
+            this.key = key;
+            this.projectIssues = projectIssues;
+        }
+    }
+}
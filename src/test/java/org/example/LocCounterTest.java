@@ -0,0 +1,97 @@
+package org.example;
+
+import org.example.logic.model.features.LocCount;
+import org.example.logic.model.features.LocCounter;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the streaming line counter: counts must be the same obtained splitting the content in lines.
+ */
+public class LocCounterTest {
+
+    private static final String SOURCE = "package a;\r\n"
+            + "\n"
+            + "/**\n"
+            + " * doc\n"
+            + " */\n"
+            + "public class A { // comment\n"
+            + "    int x = 1; /* inline */\n"
+            + "    String s = \"http://x\";\r"
+            + "  \t \n"
+            + "    /*/ odd\n"
+            + "    int y;\n"
+            + "    */ int z;\n"
+            + "}";
+
+    @Test
+    public void testSameCountsOfLines() throws IOException {
+        LocCount count = LocCounter.count(SOURCE.getBytes(StandardCharsets.UTF_8));
+        List<String> lines = readLines(SOURCE);
+
+        assertEquals(lines.size(), count.getLines());
+        assertEquals(legacySize(lines), count.getSize());
+        assertEquals(2, count.getBlankLines());
+    }
+
+    @Test
+    public void testChunksSplitAnywhere() {
+        byte[] bytes = SOURCE.getBytes(StandardCharsets.UTF_8);
+        LocCount whole = LocCounter.count(bytes);
+        for (int split = 0; split <= bytes.length; split++) {
+            LocCounter counter = new LocCounter();
+            counter.update(ByteBuffer.wrap(bytes, 0, split));
+            counter.update(ByteBuffer.wrap(bytes, split, bytes.length - split));
+            LocCount chunked = counter.finish();
+            assertEquals(whole.getLines(), chunked.getLines());
+            assertEquals(whole.getSize(), chunked.getSize());
+            assertEquals(whole.getBlankLines(), chunked.getBlankLines());
+        }
+    }
+
+    @Test
+    public void testEmptyContent() {
+        assertTrue(LocCounter.count(new byte[0]).isEmpty());
+        assertEquals(1, LocCounter.count("x".getBytes(StandardCharsets.UTF_8)).getLines());
+    }
+
+    private static List<String> readLines(String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /* Size as it was computed on the lines of the file */
+    private static int legacySize(List<String> lines) {
+        boolean multi = false;
+        int loc = lines.size();
+        for (String line : lines) {
+            if (multi) {
+                loc--;
+                if (line.contains("*/")) multi = false;
+            } else if (line.contains("//")) {
+                loc--;
+            } else if (line.contains("/*")) {
+                loc--;
+                multi = true;
+            }
+        }
+        return loc;
+    }
+}
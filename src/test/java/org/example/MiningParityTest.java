@@ -0,0 +1,131 @@
+package org.example;
+
+import org.example.logic.model.handlers.GitHandler;
+import org.example.logic.model.handlers.JGitHandler;
+import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.FileChange;
+import org.example.logic.model.keyabstractions.Project;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the three mining paths (history stream, "git show" for each commit, JGit) read the same
+ * changes, merges included.
+ */
+public class MiningParityTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File repo;
+    private int day;
+
+    /*
+     * main:  add A, B, Old  ->  modify A  ->  merge side  ->  rename A to D
+     * side:  modify B, add C, delete Old
+     */
+    @Before
+    public void createRepository() throws IOException, InterruptedException {
+        repo = folder.newFolder("repo");
+        git("init", "-q", "-b", "main");
+        write("src/A.java", "class A {\n    int a;\n    int b;\n    int c;\n    int d;\n}\n");
+        write("src/B.java", "class B {\n}\n");
+        write("src/Old.java", "class Old {\n    int x;\n}\n");
+        write("README.md", "readme\n");
+        commit("PROJ-1 first");
+        git("checkout", "-q", "-b", "side");
+        write("src/B.java", "class B {\n    int b;\n}\n");
+        write("src/C.java", "class C {\n}\n");
+        Files.delete(repo.toPath().resolve("src/Old.java"));
+        commit("PROJ-2 side");
+        git("checkout", "-q", "main");
+        write("src/A.java", "class A {\n    int a;\n    int b;\n    int c;\n    int d;\n    int e;\n}\n");
+        commit("PROJ-3 main");
+        git("merge", "-q", "--no-ff", "-m", "PROJ-4 merge", "side");
+        day++;
+        git("mv", "src/A.java", "src/D.java");
+        commit("PROJ-5 rename");
+    }
+
+    @Test
+    public void testSamePathsSameChanges() {
+        Project project = new Project("", 100, repo.getPath());
+        GitHandler git = new GitHandler(project);
+
+        List<Commit> history = git.lookupForCommits(null);
+        List<Commit> jgit = new JGitHandler(project).lookupForCommits(null);
+        assertEquals(5, history.size());
+        assertEquals(5, jgit.size());
+
+        for (int i = 0; i < history.size(); i++) {
+            Commit commit = history.get(i);
+            assertEquals(commit.getFullShaId(), jgit.get(i).getFullShaId());
+            List<String> single = describe(git.mineCommit(commit, true).getChanges());
+            List<String> perCommit = describe(git.mineCommit(commit, false).getChanges());
+            assertEquals(single, perCommit);
+            assertEquals(single, describe(jgit.get(i).getChanges()));
+        }
+
+        /* the merge brings the changes of the side branch, against the first parent */
+        Commit merge = history.get(3);
+        assertEquals(List.of("ADDED src/C.java src/C.java 2 0", "DELETED src/Old.java src/Old.java 0 3",
+                "MODIFIED src/B.java src/B.java 1 0"), withoutIds(describe(merge.getChanges())));
+        assertEquals(List.of("RENAMED src/A.java src/D.java 0 0"), withoutIds(describe(history.get(4).getChanges())));
+    }
+
+    private static List<String> describe(List<FileChange> changes) {
+        List<String> described = new ArrayList<>();
+        for (FileChange change : changes) {
+            described.add(change.getType() + " " + change.getOldPath() + " " + change.getPath() + " "
+                    + change.getAdditions() + " " + change.getDeletions()
+                    + " " + change.getOldBlobId() + " " + change.getBlobId());
+        }
+        described.sort(null);
+        return described;
+    }
+
+    private static List<String> withoutIds(List<String> described) {
+        List<String> result = new ArrayList<>();
+        for (String change : described) {
+            String[] fields = change.split(" ");
+            result.add(String.join(" ", fields[0], fields[1], fields[2], fields[3], fields[4]));
+        }
+        return result;
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = repo.toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void commit(String message) throws IOException, InterruptedException {
+        day++;
+        git("add", "-A");
+        git("commit", "-q", "-m", message);
+    }
+
+    private void git(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git", "-c", "user.name=Ann", "-c", "user.email=ann@example.org",
+                "-c", "commit.gpgsign=false"));
+        command.addAll(List.of(args));
+        ProcessBuilder builder = new ProcessBuilder(command).directory(repo).inheritIO();
+        /* one commit a day, so that date order and topological order agree */
+        String date = String.format("2021-03-%02dT12:00:00+0000", day + 1);
+        builder.environment().put("GIT_AUTHOR_DATE", date);
+        builder.environment().put("GIT_COMMITTER_DATE", date);
+        assertEquals(0, builder.start().waitFor());
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Issue;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.keyabstractions.Release;
+import org.example.logic.model.proportion.MovingWindowProportion;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the moving window proportion, against a scan of the bugs fixed before each issue.
+ */
+public class MovingWindowProportionTest {
+
+    private static final int BUGS = 750;
+
+    @Test
+    public void testSameAsScan() {
+        Project project = new Project("");
+        List<Release> releases = ReleaseFixtures.daily(20);
+        List<Issue> bugs = bugs(project, releases);
+        List<Issue> scanned = bugs(project, releases);
+        MovingWindowProportion window = new MovingWindowProportion(bugs);
+
+        Random random = new Random(42);
+        for (int i = 0; i < BUGS + 10; i++) {
+            int openV = 1 + random.nextInt(10);
+            int fixedV = openV + random.nextInt(10);
+            /* issues after the last bug are not among the bugs */
+            Issue issue = i < BUGS ? bugs.get(i) : new Issue(project, "X-" + i, "x" + i, null, null);
+            Issue scannedIssue = i < BUGS ? scanned.get(i) : new Issue(project, "X-" + i, "x" + i, null, null);
+            assertEquals(scan(scanned, scannedIssue, openV, fixedV), window.estimate(issue, openV, fixedV), 1e-9);
+        }
+    }
+
+    @Test
+    public void testAffectedVersionsChanged() {
+        Project project = new Project("");
+        List<Release> releases = ReleaseFixtures.daily(20);
+        List<Issue> bugs = bugs(project, releases);
+        project.setBugIssues(bugs);
+        MovingWindowProportion window = project.getProportion();
+        Issue last = new Issue(project, "X", "x", null, null);
+        window.estimate(last, 12, 15);
+
+        /* the affected versions of the bugs are normalized and estimated after the window is built */
+        for (int i = 0; i < BUGS; i += 3) {
+            bugs.get(i).setAffectedVersions(new ArrayList<>());
+        }
+        for (int i = 1; i < BUGS; i += 5) {
+            bugs.get(i).addAffected(releases.get(0));
+        }
+        assertEquals(scan(bugs, last, 12, 15), window.estimate(last, 12, 15), 1e-9);
+    }
+
+    /* bugs with an injected version, some without affected versions */
+    private static List<Issue> bugs(Project project, List<Release> releases) {
+        Random random = new Random(7);
+        List<Issue> bugs = new ArrayList<>();
+        for (int i = 0; i < BUGS; i++) {
+            Issue bug = new Issue(project, "B-" + i, String.valueOf(i), null, null);
+            if (random.nextInt(4) != 0) bug.addAffected(releases.get(random.nextInt(10)));
+            bugs.add(bug);
+        }
+        return bugs;
+    }
+
+    /* the previous bugs are scanned and copied, the last 1% are the window */
+    private static double scan(List<Issue> bugs, Issue issue, int openV, int fixedV) {
+        List<Issue> prevBugs = new ArrayList<>();
+        for (Issue bug : bugs) {
+            if (bug.getId().equals(issue.getId())) break;
+            prevBugs.add(bug);
+        }
+        int numBugs = prevBugs.size();
+        int percentage = (int) Math.ceil(numBugs * 0.01);
+        List<Issue> window = prevBugs.subList(numBugs - percentage, numBugs);
+        if (window.isEmpty()) {
+            issue.calculatePValue(openV, fixedV);
+            return 0.0;
+        }
+        double sum = 0;
+        for (Issue value : window) {
+            value.calculatePValue(openV, fixedV);
+            sum += value.getP();
+        }
+        return sum / window.size();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.logic.control.InspectionController;
+import org.example.logic.model.keyabstractions.Release;
+import org.example.logic.model.utils.ReleaseCatalog;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the catalog of the project releases.
+ */
+public class ReleaseCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFromJson() {
+        JSONObject json = new JSONObject("{\"versions\":["
+                + "{\"id\":\"3\",\"name\":\"1.2\",\"released\":true,\"archived\":false,\"releaseDate\":\"2021-03-01\"},"
+                + "{\"id\":\"1\",\"name\":\"1.0\",\"released\":true,\"archived\":false,\"releaseDate\":\"2020-01-10\"},"
+                + "{\"id\":\"2\",\"name\":\"1.1\",\"released\":true,\"archived\":true,\"releaseDate\":\"2020-06-01\"},"
+                + "{\"id\":\"4\",\"name\":\"2.0\",\"released\":false,\"archived\":false,\"releaseDate\":\"2022-01-01\"},"
+                + "{\"id\":\"5\",\"name\":\"2.1\",\"released\":true,\"archived\":false}]}");
+        List<Release> releases = ReleaseCatalog.fromJson(json);
+        assertEquals(2, releases.size());
+        assertEquals("1.0", releases.get(0).getName());
+        assertEquals(1, releases.get(0).getIndex());
+        assertEquals("1.2", releases.get(1).getName());
+        assertEquals(2, releases.get(1).getIndex());
+        assertEquals(LocalDateTime.parse("2021-03-01T00:00"), releases.get(1).getDate());
+    }
+
+    @Test
+    public void testSnapshotServesCopies() throws IOException {
+        Files.write(folder.getRoot().toPath().resolve("PROJ.releases"),
+                List.of("# release catalog v2", "# source " + InspectionController.getJiraBaseUrl() + "/rest/api/2/project/PROJ",
+                        "1\t10\t2020-01-10\t1.0", "2\t11\t2021-03-01\t1.2 final"),
+                StandardCharsets.UTF_8);
+        /* offline: the snapshot is used without requests */
+        ReleaseCatalog catalog = new ReleaseCatalog(folder.getRoot().toPath(), 0, true);
+        List<Release> releases = catalog.getReleases("PROJ");
+        assertEquals(2, releases.size());
+        assertEquals("11", releases.get(1).getId());
+        assertEquals("1.2 final", releases.get(1).getName());
+        assertEquals(2, releases.get(1).getIndex());
+
+        /* each project receives its own releases */
+        releases.get(0).setIndex(7);
+        assertEquals(1, catalog.getReleases("PROJ").get(0).getIndex());
+    }
+
+    @Test
+    public void testSnapshotOfAnotherServerIsNotUsed() throws IOException {
+        Files.write(folder.getRoot().toPath().resolve("PROJ.releases"),
+                List.of("# release catalog v2", "# source https://issues.apache.org/jira/rest/api/2/project/PROJ",
+                        "1\t10\t2020-01-10\t1.0"),
+                StandardCharsets.UTF_8);
+        try (JiraStubServer stub = new JiraStubServer(2)) {
+            stub.addSyntheticProject("PROJ", List.of("2021-01-01", "2021-06-01", "2022-01-01"), 0);
+            Properties prop = new Properties();
+            prop.setProperty("jira_base_url", stub.getBaseUrl());
+            InspectionController.configure(prop);
+
+            /* the snapshot never expires, but it was recorded from another server */
+            ReleaseCatalog catalog = new ReleaseCatalog(folder.getRoot().toPath(), 0, false);
+            assertEquals(List.of("1.0", "1.1", "1.2"), catalog.getReleases("PROJ").stream().map(Release::getName).toList());
+            assertEquals(1, stub.getRequests());
+
+            /* the snapshot now belongs to the stand-in */
+            ReleaseCatalog later = new ReleaseCatalog(folder.getRoot().toPath(), 0, false);
+            assertEquals(3, later.getReleases("PROJ").size());
+            assertEquals(1, stub.getRequests());
+        } finally {
+            Properties prop = new Properties();
+            prop.setProperty("jira_base_url", "https://issues.apache.org/jira");
+            InspectionController.configure(prop);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Release;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Releases for the tests, named after their index (the first one is 1).
+ */
+final class ReleaseFixtures {
+
+    static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private ReleaseFixtures() {
+    }
+
+    /**
+     * @param index the index of the release, also its id and name
+     * @param date the release date
+     * @return the release
+     */
+    static Release release(int index, LocalDateTime date) {
+        Release release = new Release(String.valueOf(index), String.valueOf(index), date);
+        release.setIndex(index);
+        return release;
+    }
+
+    /**
+     * @param count the number of releases
+     * @return the releases 1..count, one a day after START
+     */
+    static List<Release> daily(int count) {
+        List<Release> releases = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            releases.add(release(i, START.plusDays(i)));
+        }
+        return releases;
+    }
+}
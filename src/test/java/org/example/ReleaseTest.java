@@ -0,0 +1,30 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Release;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for the tags that name a release.
+ */
+public class ReleaseTest {
+
+    @Test
+    public void testMatchesTag() {
+        Release release = ReleaseFixtures.release(1, ReleaseFixtures.START);
+        release.setName("1.0");
+        assertTrue(release.matchesTag("1.0", "SYNCOPE"));
+        assertTrue(release.matchesTag("v1.0", "SYNCOPE"));
+        assertTrue(release.matchesTag("syncope-1.0", "SYNCOPE"));
+        assertFalse(release.matchesTag("foo-bar-1.0", "SYNCOPE"));
+        assertFalse(release.matchesTag("syncope-11.0", "SYNCOPE"));
+        assertFalse(release.matchesTag("-1.0", "SYNCOPE"));
+
+        /* a release with a tag is named only by it */
+        release.setTag("rel/1.0");
+        assertTrue(release.matchesTag("rel/1.0", "SYNCOPE"));
+        assertFalse(release.matchesTag("1.0", "SYNCOPE"));
+    }
+}
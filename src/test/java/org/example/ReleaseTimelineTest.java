@@ -0,0 +1,78 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Release;
+import org.example.logic.model.keyabstractions.ReleaseTimeline;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.example.ReleaseFixtures.START;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for the release timeline, against the scans of the releases.
+ */
+public class ReleaseTimelineTest {
+
+    @Test
+    public void testSameAsScan() {
+        Random random = new Random(5);
+        /* some releases on the same day, at different times */
+        List<Release> releases = new ArrayList<>();
+        LocalDateTime date = START;
+        for (int i = 1; i <= 40; i++) {
+            date = random.nextInt(4) == 0 ? date.plusHours(3) : date.plusDays(1 + random.nextInt(20)).withHour(0);
+            releases.add(ReleaseFixtures.release(i, date));
+        }
+        List<Release> viewed = releases.subList(0, 20);
+        ReleaseTimeline timeline = new ReleaseTimeline(releases, viewed.size());
+
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime created = START.minusDays(10).plusMinutes(random.nextInt(60 * 24 * 500));
+            if (i % 10 == 0) created = releases.get(random.nextInt(releases.size())).getDate();
+            assertSame(created.toString(), scanByDate(releases, created), timeline.findVersionByDate(created));
+        }
+        for (int index = -1; index <= 42; index++) {
+            Release release = scanByIndex(releases, index);
+            assertSame(release, timeline.findVersionByIndex(index));
+            assertEquals(release.getDate().toLocalDate(), timeline.getDay(index));
+            assertEquals(viewed.contains(release), timeline.isViewed(index));
+        }
+        for (Release release : releases) {
+            assertSame(release, timeline.findVersionById(release.getId()));
+        }
+        assertNull(timeline.findVersionById("41"));
+    }
+
+    @Test
+    public void testNoReleases() {
+        ReleaseTimeline timeline = new ReleaseTimeline(new ArrayList<>(), 0);
+        assertNull(timeline.findVersionByDate(START));
+        assertNull(timeline.findVersionByIndex(1));
+    }
+
+    /* first release not before the date, else the last one */
+    private static Release scanByDate(List<Release> versions, LocalDateTime created) {
+        Release version = null;
+        for (Release release : versions) {
+            version = release;
+            if (version.getDate().compareTo(created) >= 0) return version;
+        }
+        return version;
+    }
+
+    /* release with the index, else the last one */
+    private static Release scanByIndex(List<Release> versions, int idx) {
+        Release version = null;
+        for (Release release : versions) {
+            version = release;
+            if (version.getIndex() == idx) return version;
+        }
+        return version;
+    }
+}
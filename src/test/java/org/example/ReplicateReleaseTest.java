@@ -25,7 +25,7 @@ public class ReplicateReleaseTest {
     private final List<Release> expectedResult;
 
     public ReplicateReleaseTest(int[] releaseIndexes, List<Integer> resultIndexes) {
-        this.file = new JFile(new Project("", new Properties(2)), "", "",
+        this.file = new JFile(new Project(""), "", "",
                 null);
         this.releases = new ArrayList<>();
         this.expectedResult = new ArrayList<>();
@@ -35,7 +35,6 @@ public class ReplicateReleaseTest {
             releases.add(rel);
             file.addRelease(rel);
         }
-        System.out.println(file.getReleases());
 
         for (int i = 0; i < resultIndexes.size(); i++) {
             Release rel = new Release(String.valueOf(i), String.valueOf(i), LocalDateTime.now());
@@ -0,0 +1,68 @@
+package org.example;
+
+import org.example.logic.model.keyabstractions.Commit;
+import org.example.logic.model.keyabstractions.Project;
+import org.example.logic.model.utils.TicketIndex;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for the index of the ticket references in the commit messages.
+ */
+public class TicketIndexTest {
+
+    private final Project project = new Project("");
+
+    @Test
+    public void testSeveralTicketsInAMessage() {
+        Commit first = commit("PROJ-12: fix reader, see also [PROJ-7] and PROJ-123 ");
+        Commit second = commit("Merge PROJ-12 into branch");
+        Commit third = commit("PROJ-12-followup, PROJ-1234, SUBPROJ-7: other tracker");
+        TicketIndex index = new TicketIndex(List.of(first, second, third));
+
+        assertEquals(List.of(first, second), index.commitsOf("PROJ-12"));
+        assertEquals(List.of(first, third), index.commitsOf("PROJ-7"));
+        assertEquals(List.of(first), index.commitsOf("PROJ-123"));
+        assertEquals(List.of(), index.commitsOf("PROJ-1234"));
+    }
+
+    @Test
+    public void testSameAsMessageSearch() {
+        Random random = new Random(3);
+        String[] words = {"PROJ-", "[PROJ-", "XPROJ-", "fix", "-", ":", "]", " ", "OTHER-", "1", "12", "7", "\n"};
+        List<Commit> commits = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder message = new StringBuilder();
+            for (int w = random.nextInt(12); w > 0; w--) {
+                message.append(words[random.nextInt(words.length)]);
+            }
+            commits.add(commit(message.toString()));
+        }
+        TicketIndex index = new TicketIndex(commits);
+        for (String key : new String[]{"PROJ-1", "PROJ-12", "PROJ-7", "PROJ-112", "OTHER-1", "XPROJ-7"}) {
+            assertEquals(key, search(commits, key), index.commitsOf(key));
+        }
+    }
+
+    /* the message contains the key followed by ':', ']' or ' ' */
+    private static List<Commit> search(List<Commit> commits, String key) {
+        List<Commit> linked = new ArrayList<>();
+        for (Commit commit : commits) {
+            String message = commit.getMessage();
+            if (message.contains(key + ":") || message.contains(key + "]") || message.contains(key + " ")) {
+                linked.add(commit);
+            }
+        }
+        return linked;
+    }
+
+    private Commit commit(String message) {
+        return new Commit(project, "sha", message, LocalDateTime.now(), "author");
+    }
+}
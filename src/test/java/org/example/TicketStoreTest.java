@@ -0,0 +1,72 @@
+package org.example;
+
+import org.example.logic.model.handlers.JiraSearchDecoder;
+import org.example.logic.model.utils.TicketStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit test for the store of the tickets synced from JIRA.
+ */
+public class TicketStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMergeUpdatedTickets() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("PROJ-Bug.tickets");
+        TicketStore store = new TicketStore(file);
+        store.load();
+        assertNull(store.getWatermark());
+        store.replace(decode(ticket("PROJ-9", "Closed", "Fixed", "Bug", "{\"id\":\"7\",\"released\":false}"),
+                ticket("PROJ-100", "Resolved", "Fixed", "Bug", ""),
+                ticket("PROJ-12", "Closed", "Fixed", "Bug", "")));
+        Instant mark = Instant.parse("2024-01-02T10:00:00Z");
+        store.save(mark);
+
+        /* a later run */
+        TicketStore loaded = new TicketStore(file);
+        loaded.load();
+        assertEquals(mark, loaded.getWatermark());
+        assertEquals(List.of("PROJ-100", "PROJ-12", "PROJ-9"), keys(loaded.getTickets()));
+        JiraSearchDecoder.Version version = loaded.getTickets().get(2).getFixVersions().get(0);
+        assertEquals("7", version.getId());
+        assertNull(version.getReleaseDate());
+
+        /* new fixed ticket, reopened ticket, ticket of another type */
+        int merged = loaded.merge(decode(ticket("PROJ-150", "Closed", "Fixed", "Bug", ""),
+                ticket("PROJ-100", "Reopened", null, "Bug", ""),
+                ticket("PROJ-12", "Closed", "Fixed", "Task", "")), "Bug");
+        assertEquals(1, merged);
+        assertEquals(List.of("PROJ-150", "PROJ-9"), keys(loaded.getTickets()));
+    }
+
+    private static String ticket(String key, String status, String resolution, String type, String fixVersions) {
+        return "{\"key\":\"" + key + "\",\"id\":\"" + key.substring(5) + "\",\"fields\":{"
+                + "\"created\":\"2020-01-01T00:00:00.000+0000\",\"resolutiondate\":"
+                + (resolution == null ? "null" : "\"2020-03-01T00:00:00.000+0000\"")
+                + ",\"issuetype\":{\"name\":\"" + type + "\"},\"status\":{\"name\":\"" + status + "\"},\"resolution\":"
+                + (resolution == null ? "null" : "{\"name\":\"" + resolution + "\"}")
+                + ",\"versions\":[],\"fixVersions\":[" + fixVersions + "]}}";
+    }
+
+    private static List<JiraSearchDecoder.Ticket> decode(String... tickets) throws IOException {
+        String page = "{\"total\":" + tickets.length + ",\"issues\":[" + String.join(",", tickets) + "]}";
+        return JiraSearchDecoder.decode(new StringReader(page)).getTickets();
+    }
+
+    private static List<String> keys(List<JiraSearchDecoder.Ticket> tickets) {
+        return tickets.stream().map(JiraSearchDecoder.Ticket::getKey).toList();
+    }
+}